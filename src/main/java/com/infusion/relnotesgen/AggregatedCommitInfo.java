@@ -0,0 +1,105 @@
+package com.infusion.relnotesgen;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Commit info of several repositories, jira keys are deduplicated so all repositories share one JIRA fetch.
+ */
+public class AggregatedCommitInfo implements CommitInfoProvider {
+
+    private final List<String> repositories = new ArrayList<>();
+    private final List<SCMFacade.Response> gitInfos = new ArrayList<>();
+    private final List<CommitInfoProvider> commitInfos = new ArrayList<>();
+
+    /**
+     * @param repository - name of the repository
+     * @param gitInfo    - response of reading the repository
+     * @param commitInfo - commits read from the repository
+     */
+    public void add(final String repository, final SCMFacade.Response gitInfo, final CommitInfoProvider commitInfo) {
+        repositories.add(repository);
+        gitInfos.add(gitInfo);
+        commitInfos.add(commitInfo);
+    }
+
+    /**
+     * @return response describing all repositories, commits and tags are listed as 'repository:commit'
+     */
+    public SCMFacade.Response getGitInfo() {
+        List<String> lowerCommits = new ArrayList<>();
+        List<String> lowerTags = new ArrayList<>();
+        List<String> upperCommits = new ArrayList<>();
+        List<String> upperTags = new ArrayList<>();
+        List<String> branches = new ArrayList<>();
+        for (int i = 0; i < repositories.size(); i++) {
+            String prefix = repositories.get(i) + ":";
+            SCMFacade.Response gitInfo = gitInfos.get(i);
+            addIfNotNull(lowerCommits, prefix, gitInfo.commitTag1.getCommit());
+            addIfNotNull(lowerTags, prefix, gitInfo.commitTag1.getTag());
+            addIfNotNull(upperCommits, prefix, gitInfo.commitTag2.getCommit());
+            addIfNotNull(upperTags, prefix, gitInfo.commitTag2.getTag());
+            addIfNotNull(branches, prefix, gitInfo.gitBranch);
+        }
+        Joiner joiner = Joiner.on(", ");
+        return new SCMFacade.Response(getCommitsCount(), gitInfos.isEmpty() ? null : gitInfos.get(0).version,
+                new SCMFacade.GitCommitTag(joiner.join(lowerCommits), joiner.join(lowerTags)),
+                new SCMFacade.GitCommitTag(joiner.join(upperCommits), joiner.join(upperTags)), joiner.join(branches));
+    }
+
+    private static void addIfNotNull(final List<String> values, final String prefix, final String value) {
+        if (value != null) {
+            values.add(prefix + value);
+        }
+    }
+
+    @Override
+    public int getCommitsCount() {
+        int commitsCount = 0;
+        for (CommitInfoProvider commitInfo : commitInfos) {
+            commitsCount += commitInfo.getCommitsCount();
+        }
+        return commitsCount;
+    }
+
+    @Override
+    public ImmutableSet<String> getJiraIssueKeys() {
+        ImmutableSet.Builder<String> jiraIssueKeys = ImmutableSet.builder();
+        for (CommitInfoProvider commitInfo : commitInfos) {
+            jiraIssueKeys.addAll(commitInfo.getJiraIssueKeys());
+        }
+        return jiraIssueKeys.build();
+    }
+
+    @Override
+    public Map<String, Set<String>> getPullRequestIds() {
+        Map<String, Set<String>> pullRequestIds = new HashMap<>();
+        for (CommitInfoProvider commitInfo : commitInfos) {
+            for (Map.Entry<String, Set<String>> entry : commitInfo.getPullRequestIds().entrySet()) {
+                Set<String> ids = pullRequestIds.get(entry.getKey());
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    pullRequestIds.put(entry.getKey(), ids);
+                }
+                ids.addAll(entry.getValue());
+            }
+        }
+        return pullRequestIds;
+    }
+
+    @Override
+    public ImmutableSet<ReportCommitModel> getCommitsWithDefectIds() {
+        ImmutableSet.Builder<ReportCommitModel> commitsWithDefectIds = ImmutableSet.builder();
+        for (CommitInfoProvider commitInfo : commitInfos) {
+            commitsWithDefectIds.addAll(commitInfo.getCommitsWithDefectIds());
+        }
+        return commitsWithDefectIds.build();
+    }
+}
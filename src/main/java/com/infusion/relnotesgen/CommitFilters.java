@@ -0,0 +1,89 @@
+package com.infusion.relnotesgen;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.util.RawParseUtils;
+
+/**
+ * Commit filters which can be pushed down into the history walk, see {@link SCMFacade#setCommitFilter(RevFilter)}.
+ */
+public final class CommitFilters {
+
+    public static final String ALL = "all";
+    public static final String MERGES = "merges";
+    public static final String PREFIX = "prefix:";
+
+    private CommitFilters() {
+    }
+
+    /**
+     * @param description - 'all' (or empty), 'merges' or 'prefix:&lt;message prefix&gt;'
+     * @return filter described by given text
+     */
+    public static RevFilter parse(final String description) {
+        if (StringUtils.isEmpty(description) || ALL.equals(description)) {
+            return RevFilter.ALL;
+        }
+        if (MERGES.equals(description)) {
+            return RevFilter.ONLY_MERGES;
+        }
+        if (description.startsWith(PREFIX)) {
+            return messagePrefix(description.substring(PREFIX.length()));
+        }
+        throw new IllegalArgumentException("Unknown commit filter '" + description + "', expected '" + ALL + "', '"
+                + MERGES + "' or '" + PREFIX + "<message prefix>'.");
+    }
+
+    /**
+     * @param prefix - text the commit message has to start with
+     * @return filter including only commits with message starting with given prefix
+     */
+    public static RevFilter messagePrefix(final String prefix) {
+        return new MessagePrefixRevFilter(prefix);
+    }
+
+    private static class MessagePrefixRevFilter extends RevFilter {
+
+        private final String prefix;
+        private final byte[] rawPrefix;
+
+        private MessagePrefixRevFilter(final String prefix) {
+            this.prefix = prefix;
+            this.rawPrefix = Constants.encode(prefix);
+        }
+
+        @Override
+        public boolean include(final RevWalk walker, final RevCommit commit) {
+            // compares raw bytes, so the message of a commit is never decoded to decide whether to skip it
+            byte[] raw = commit.getRawBuffer();
+            int messageStart = RawParseUtils.commitMessage(raw, 0);
+            if (messageStart < 0 || raw.length - messageStart < rawPrefix.length) {
+                return false;
+            }
+            for (int i = 0; i < rawPrefix.length; i++) {
+                if (raw[messageStart + i] != rawPrefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public RevFilter clone() {
+            return this;
+        }
+
+        @Override
+        public boolean requiresCommitBody() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "MESSAGE_PREFIX(" + prefix + ")";
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.infusion.relnotesgen;
+
+/**
+ * Receives commits one by one while scm history is read, see
+ * {@link SCMFacade#readByCommit(SCMFacade.GitCommitTag, SCMFacade.GitCommitTag, CommitHandler)}.
+ */
+public interface CommitHandler {
+
+    void handle(Commit commit);
+}
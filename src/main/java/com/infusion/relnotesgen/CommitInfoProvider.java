@@ -2,6 +2,19 @@ package com.infusion.relnotesgen;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.util.Map;
+import java.util.Set;
+
 public interface CommitInfoProvider {
-    ImmutableSet<Commit> getCommits();
+
+    int getCommitsCount();
+
+    ImmutableSet<String> getJiraIssueKeys();
+
+    /**
+     * @return pull request ids by jira issue key
+     */
+    Map<String, Set<String>> getPullRequestIds();
+
+    ImmutableSet<ReportCommitModel> getCommitsWithDefectIds();
 }
@@ -8,4 +8,9 @@ public interface CommitMessageParser {
     ImmutableSet<String> getDefectIds(String text);
 
     String getPullRequestId(String text);
+
+    /**
+     * @return jira keys, defect ids and pull request id found in a single pass over the text
+     */
+    ParsedMessage parse(String text);
 }
@@ -2,53 +2,49 @@ package com.infusion.relnotesgen;
 
 import com.google.common.collect.ImmutableSet;
 
-import java.util.regex.Matcher;
+import java.util.List;
 import java.util.regex.Pattern;
 
 public class CommitMessageParserImpl implements CommitMessageParser {
-    private final Pattern jiraKeyPattern;
-    private final Pattern defectIdPattern;
-    private final Pattern prPattern = Pattern.compile("Merge pull request #\\d+");
+    private static final String PR_PREFIX = "Merge pull request #";
+
+    private final CommitMessageScanner scanner;
 
     public CommitMessageParserImpl(final Configuration configuration) {
-        jiraKeyPattern = Pattern.compile(configuration.getJiraIssuePattern());
-        defectIdPattern = Pattern.compile(configuration.getDefectPattern(), Pattern.CASE_INSENSITIVE);
+        scanner = new CommitMessageScanner(
+                Pattern.compile(configuration.getJiraIssuePattern()),
+                Pattern.compile(configuration.getDefectPattern(), Pattern.CASE_INSENSITIVE),
+                Pattern.compile(PR_PREFIX + "\\d+"));
     }
 
     @Override
     public ImmutableSet<String> getJiraKeys(final String text) {
-        return matchAll(jiraKeyPattern, text);
+        return parse(text).getJiraKeys();
     }
 
     @Override
     public ImmutableSet<String> getDefectIds(final String text) {
-        return matchAll(defectIdPattern, text);
+        return parse(text).getDefectIds();
     }
 
     @Override
     public String getPullRequestId(String text) {
-
-        ImmutableSet<String> matches = matchAll(prPattern, text);
-        if(matches.size() == 1) {
-            // one match for text, second for ID
-            return matches.asList().get(0).replace("Merge pull request #","");
-        }
-
-        return null;
+        return parse(text).getPullRequestId();
     }
 
-    private ImmutableSet<String> matchAll(final Pattern pattern, final String text) {
+    @Override
+    public ParsedMessage parse(final String text) {
 
         if(!text.startsWith("Merge pull request"))
-            return ImmutableSet.of();
+            return ParsedMessage.EMPTY;
 
-        ImmutableSet.Builder<String> matchesBuilder = ImmutableSet.builder();
-        Matcher matcher = pattern.matcher(text);
-
-        while (matcher.find()) {
-            matchesBuilder.add(matcher.group());
+        List<ImmutableSet<String>> matches = scanner.scan(text);
+        String pullRequestId = null;
+        if(matches.get(2).size() == 1) {
+            // one match for text, second for ID
+            pullRequestId = matches.get(2).asList().get(0).substring(PR_PREFIX.length());
         }
 
-        return matchesBuilder.build();
+        return new ParsedMessage(matches.get(0), matches.get(1), pullRequestId);
     }
 }
@@ -0,0 +1,259 @@
+package com.infusion.relnotesgen;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds matches of several patterns in a single left-to-right pass over a text.
+ * <p>
+ * Patterns made of literal alternatives followed by digits, like {@code ((HA)|(CP))-\d+}, are compiled into a trie of
+ * the literals; at every position of the text each pattern tries its literals there, so matches are the same as
+ * {@link Matcher#find()} would report: leftmost, first alternative in order, digits taken greedily, and not
+ * overlapping other matches of the same pattern. Other patterns are matched with regex.
+ */
+class CommitMessageScanner {
+
+    private final List<DigitsPattern> compiled = new ArrayList<>();
+    private final Map<Integer, Pattern> fallbacks = new HashMap<>();
+
+    CommitMessageScanner(final Pattern... patterns) {
+        for (int i = 0; i < patterns.length; i++) {
+            DigitsPattern digitsPattern = DigitsPattern.compile(patterns[i].pattern(), patterns[i].flags());
+            compiled.add(digitsPattern);
+            if (digitsPattern == null) {
+                fallbacks.put(i, patterns[i]);
+            }
+        }
+    }
+
+    /**
+     * @return distinct matches of each pattern in order of patterns
+     */
+    List<ImmutableSet<String>> scan(final String text) {
+        int count = compiled.size();
+        List<ImmutableSet.Builder<String>> matches = new ArrayList<>(count);
+        for (int p = 0; p < count; p++) {
+            matches.add(ImmutableSet.<String>builder());
+        }
+
+        int[] next = new int[count];
+        for (int i = 0; i < text.length(); i++) {
+            for (int p = 0; p < count; p++) {
+                DigitsPattern pattern = compiled.get(p);
+                if (pattern != null && i >= next[p]) {
+                    int end = pattern.matchAt(text, i);
+                    if (end >= 0) {
+                        matches.get(p).add(text.substring(i, end));
+                        next[p] = end;
+                    }
+                }
+            }
+        }
+        for (Map.Entry<Integer, Pattern> fallback : fallbacks.entrySet()) {
+            Matcher matcher = fallback.getValue().matcher(text);
+            while (matcher.find()) {
+                matches.get(fallback.getKey()).add(matcher.group());
+            }
+        }
+
+        List<ImmutableSet<String>> result = new ArrayList<>(count);
+        for (ImmutableSet.Builder<String> builder : matches) {
+            result.add(builder.build());
+        }
+        return result;
+    }
+
+    boolean isCompiled(final int pattern) {
+        return compiled.get(pattern) != null;
+    }
+
+    /**
+     * Literal alternatives followed by a run of digits
+     */
+    static final class DigitsPattern {
+
+        private final Node root = new Node();
+        private final int minDigits;
+        private final boolean unbounded;
+        private final boolean caseInsensitive;
+
+        private DigitsPattern(final List<String> prefixes, final int minDigits, final boolean unbounded,
+                final boolean caseInsensitive) {
+            this.minDigits = minDigits;
+            this.unbounded = unbounded;
+            this.caseInsensitive = caseInsensitive;
+            for (int i = 0; i < prefixes.size(); i++) {
+                Node node = root;
+                for (char c : prefixes.get(i).toCharArray()) {
+                    node = node.child(fold(c), true);
+                }
+                if (node.prefix < 0) {
+                    node.prefix = i;
+                }
+            }
+        }
+
+        /**
+         * @return compiled pattern, null when the regex isn't literal alternatives followed by {@code \d}s or flags
+         * other than {@link Pattern#CASE_INSENSITIVE} are given
+         */
+        static DigitsPattern compile(final String regex, final int flags) {
+            if ((flags & ~Pattern.CASE_INSENSITIVE) != 0) {
+                return null;
+            }
+            String prefix = regex;
+            boolean unbounded = prefix.endsWith("+");
+            if (unbounded) {
+                prefix = prefix.substring(0, prefix.length() - 1);
+            }
+            int digits = 0;
+            while (prefix.endsWith("\\d")) {
+                prefix = prefix.substring(0, prefix.length() - 2);
+                digits++;
+            }
+            if (digits == 0) {
+                return null;
+            }
+
+            int[] position = {0};
+            List<String> prefixes = parseAlternatives(prefix, position, false);
+            if (prefixes == null || position[0] != prefix.length() || prefixes.contains("")) {
+                return null;
+            }
+            return new DigitsPattern(prefixes, digits, unbounded, (flags & Pattern.CASE_INSENSITIVE) != 0);
+        }
+
+        /**
+         * @return end of the match starting at given position, -1 when there's none
+         */
+        int matchAt(final String text, final int start) {
+            int best = Integer.MAX_VALUE;
+            int bestEnd = -1;
+            Node node = root;
+            int i = start;
+            while (node != null) {
+                if (node.prefix >= 0 && node.prefix < best) {
+                    int end = digitsEnd(text, i);
+                    if (end >= 0) {
+                        best = node.prefix;
+                        bestEnd = end;
+                    }
+                }
+                if (i >= text.length()) {
+                    break;
+                }
+                node = node.child(fold(text.charAt(i++)), false);
+            }
+            return bestEnd;
+        }
+
+        private int digitsEnd(final String text, final int from) {
+            int end = from;
+            while (end < text.length() && (unbounded || end - from < minDigits) && isDigit(text.charAt(end))) {
+                end++;
+            }
+            return end - from >= minDigits ? end : -1;
+        }
+
+        private char fold(final char c) {
+            // CASE_INSENSITIVE without UNICODE_CASE folds US-ASCII only
+            return caseInsensitive && c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+
+        private static boolean isDigit(final char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private static List<String> parseAlternatives(final String regex, final int[] position, final boolean inGroup) {
+            List<String> alternatives = new ArrayList<>();
+            while (true) {
+                List<String> sequence = parseSequence(regex, position);
+                if (sequence == null) {
+                    return null;
+                }
+                alternatives.addAll(sequence);
+                if (position[0] < regex.length() && regex.charAt(position[0]) == '|') {
+                    if (!inGroup) {
+                        return null;
+                    }
+                    position[0]++;
+                } else {
+                    return alternatives;
+                }
+            }
+        }
+
+        private static List<String> parseSequence(final String regex, final int[] position) {
+            List<String> sequence = Collections.singletonList("");
+            while (position[0] < regex.length() && regex.charAt(position[0]) != '|' && regex.charAt(position[0]) != ')') {
+                List<String> term = parseTerm(regex, position);
+                if (term == null || isQuantified(regex, position[0])) {
+                    return null;
+                }
+                // backtracking tries later terms for each alternative of an earlier one
+                List<String> product = new ArrayList<>(sequence.size() * term.size());
+                for (String head : sequence) {
+                    for (String tail : term) {
+                        product.add(head + tail);
+                    }
+                }
+                sequence = product;
+            }
+            return sequence;
+        }
+
+        private static List<String> parseTerm(final String regex, final int[] position) {
+            char c = regex.charAt(position[0]++);
+            if (c == '(') {
+                if (position[0] < regex.length() && regex.charAt(position[0]) == '?') {
+                    return null;
+                }
+                List<String> group = parseAlternatives(regex, position, true);
+                if (group == null || position[0] >= regex.length() || regex.charAt(position[0]) != ')') {
+                    return null;
+                }
+                position[0]++;
+                return group;
+            }
+            if (c == '\\') {
+                if (position[0] >= regex.length() || Character.isLetterOrDigit(regex.charAt(position[0]))) {
+                    return null;
+                }
+                return Collections.singletonList(String.valueOf(regex.charAt(position[0]++)));
+            }
+            if (".[]{}*+?^$".indexOf(c) >= 0) {
+                return null;
+            }
+            return Collections.singletonList(String.valueOf(c));
+        }
+
+        private static boolean isQuantified(final String regex, final int position) {
+            return position < regex.length() && "*+?{".indexOf(regex.charAt(position)) >= 0;
+        }
+
+        private static final class Node {
+
+            private Map<Character, Node> children;
+            private int prefix = -1;
+
+            Node child(final char c, final boolean create) {
+                Node child = children != null ? children.get(c) : null;
+                if (child == null && create) {
+                    if (children == null) {
+                        children = new HashMap<>();
+                    }
+                    child = new Node();
+                    children.put(c, child);
+                }
+                return child;
+            }
+        }
+    }
+}
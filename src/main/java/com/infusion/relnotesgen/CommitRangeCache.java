@@ -0,0 +1,139 @@
+package com.infusion.relnotesgen;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.thoughtworks.xstream.XStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * On-disk cache of parsed commit ranges.
+ * <p>
+ * A range is identified by the ids of its lower and upper bound, the commit filter and the patterns commits are
+ * parsed with, so a cached range never gets stale - a different history always has a different upper bound id.
+ * Every range is stored in its own file named after the hash of (lower bound, filter, patterns, format version) and
+ * the upper bound id, which lets {@link #getUpperBounds(String, String)} list the ranges sharing a lower bound without
+ * reading them.
+ */
+public class CommitRangeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(Configuration.LOGGER_NAME);
+    private static final String EXTENSION = ".xml";
+    /**
+     * Version of the parser and of the serialized {@link ParsedCommit}, must be raised whenever either changes so ranges
+     * cached by an older build are not replayed
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private final File directory;
+    private final String parserKey;
+    private final XStream xstream = new XStream();
+
+    /**
+     * @param directory - directory holding the cache, created when it doesn't exist
+     * @param parserKey - text identifying how commits are parsed (e.g. the patterns used), part of every key
+     */
+    public CommitRangeCache(final File directory, final String parserKey) {
+        this.directory = directory;
+        this.parserKey = parserKey;
+        xstream.alias("commitRange", CachedRange.class);
+        xstream.alias("commit", ParsedCommit.class);
+        // the directory is configurable, only the types of cached ranges may be read from it
+        XStream.setupDefaultSecurity(xstream);
+        xstream.allowTypes(new Class[] {CachedRange.class, ParsedCommit.class, String.class, ArrayList.class});
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new RuntimeException("Couldn't create commit cache directory " + directory.getAbsolutePath());
+        }
+    }
+
+    /**
+     * @return commits of the range ordered from new to old, or null when the range is not cached
+     */
+    public List<ParsedCommit> get(final String lowerBoundId, final String upperBoundId, final String filter) {
+        File file = fileOf(lowerBoundId, upperBoundId, filter);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            CachedRange range = (CachedRange) xstream.fromXML(input);
+            logger.info("Read {} commits of range {}..{} from cache.", range.commits.size(), lowerBoundId,
+                    upperBoundId);
+            return range.commits;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Couldn't read cached commit range from {}, ignoring it.", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * @return ids of upper bounds of all cached ranges with given lower bound and filter
+     */
+    public List<String> getUpperBounds(final String lowerBoundId, final String filter) {
+        final String prefix = rangeKey(lowerBoundId, filter) + "-";
+        String[] names = directory.list(new FilenameFilter() {
+
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.startsWith(prefix) && name.endsWith(EXTENSION);
+            }
+        });
+        List<String> upperBounds = new ArrayList<>();
+        if (names != null) {
+            for (String name : names) {
+                upperBounds.add(name.substring(prefix.length(), name.length() - EXTENSION.length()));
+            }
+        }
+        return upperBounds;
+    }
+
+    /**
+     * @param commits - commits of the range ordered from new to old
+     */
+    public void put(final String lowerBoundId, final String upperBoundId, final String filter,
+            final List<ParsedCommit> commits) {
+        File file = fileOf(lowerBoundId, upperBoundId, filter);
+        try {
+            File temp = File.createTempFile("range", ".tmp", directory);
+            try (OutputStream output = Files.newOutputStream(temp.toPath())) {
+                xstream.toXML(new CachedRange(lowerBoundId, upperBoundId, commits), output);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Cached {} commits of range {}..{}.", commits.size(), lowerBoundId, upperBoundId);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Couldn't cache commit range in {}.", file.getAbsolutePath(), e);
+        }
+    }
+
+    private File fileOf(final String lowerBoundId, final String upperBoundId, final String filter) {
+        return new File(directory, rangeKey(lowerBoundId, filter) + "-" + upperBoundId + EXTENSION);
+    }
+
+    private String rangeKey(final String lowerBoundId, final String filter) {
+        return Hashing.sha1().hashString(lowerBoundId + "|" + filter + "|" + parserKey + "|" + FORMAT_VERSION,
+                Charsets.UTF_8).toString();
+    }
+
+    private static class CachedRange {
+
+        private final String lowerBoundId;
+        private final String upperBoundId;
+        private final List<ParsedCommit> commits;
+
+        CachedRange(final String lowerBoundId, final String upperBoundId, final List<ParsedCommit> commits) {
+            this.lowerBoundId = lowerBoundId;
+            this.upperBoundId = upperBoundId;
+            this.commits = new ArrayList<>(commits);
+        }
+    }
+}
@@ -37,11 +37,23 @@ public class Configuration {
     static final String GIT_COMMITTER_MAIL = "git.committer.mail";
     static final String GIT_COMMITMESSAGE_VALIDATIONOMMITER = "git.commitmessage.validationommiter";
     static final String GIT_COMMIT_LIMIT = "git.commit.limit";
+    static final String GIT_BARE = "git.bare";
+    static final String GIT_COMMIT_FILTER = "git.commit.filter";
+    static final String GIT_COMMIT_CACHE = "git.commit.cache";
+    static final String GIT_REPOSITORIES = "git.repositories";
+    static final String GIT_REPOSITORIES_THREADS = "git.repositories.threads";
     static final String DEFECT_PATTERN= "git.defectpattern";
     static final String JIRA_URL = "jira.url";
     static final String JIRA_USERNAME = "jira.username";
     static final String JIRA_PASSWORD = "jira.password";
     static final String JIRA_ISSUEPATTERN = "jira.issuepattern";
+    static final String JIRA_SEARCH_PAGESIZE = "jira.search.pageSize";
+    static final String JIRA_SEARCH_PARALLELISM = "jira.search.parallelism";
+    static final String JIRA_SEARCH_CHUNKSIZE = "jira.search.chunkSize";
+    static final String JIRA_SEARCH_FIELDS = "jira.search.fields";
+    static final String JIRA_SEARCH_MAXRETRIES = "jira.search.maxRetries";
+    static final String JIRA_SEARCH_REQUESTBUDGET = "jira.search.requestBudget";
+    static final String JIRA_ISSUE_CACHE = "jira.issue.cache";
     static final String ISSUE_FILTERBY_COMPONENT = "issue.filterby.component";
     static final String ISSUE_FILTERBY_TYPE = "issue.filterby.type";
     static final String ISSUE_FILTERBY_LABEL = "issue.filterby.label";
@@ -120,6 +132,71 @@ public class Configuration {
         return properties.getProperty(GIT_COMMITMESSAGE_VALIDATIONOMMITER);
     }
 
+    public boolean isGitBare() {
+        return Boolean.parseBoolean(properties.getProperty(GIT_BARE));
+    }
+
+    public String getGitCommitFilter() {
+        return properties.getProperty(GIT_COMMIT_FILTER);
+    }
+
+    public String getGitCommitCache() {
+        return properties.getProperty(GIT_COMMIT_CACHE);
+    }
+
+    public String[] getGitRepositories() {
+        return CollectionUtils.stringToArray(",", properties.getProperty(GIT_REPOSITORIES));
+    }
+
+    public int getGitRepositoriesThreads() {
+        return getIntProperty(GIT_REPOSITORIES_THREADS, 4);
+    }
+
+    /**
+     * @param repository - one of {@link #getGitRepositories()}
+     * @return copy of this configuration with git directory, branch and url of given repository, that is
+     *         'git.repositories.&lt;repository&gt;.directory', '.branch' and '.url' when defined
+     */
+    public Configuration forGitRepository(final String repository) {
+        Properties repositoryProperties = new Properties();
+        repositoryProperties.putAll(properties);
+        repositoryProperties.remove(GIT_REPOSITORIES);
+        copyGitRepositoryProperty(repositoryProperties, repository, "directory", GIT_DIRECTORY);
+        copyGitRepositoryProperty(repositoryProperties, repository, "branch", GIT_BRANCH);
+        copyGitRepositoryProperty(repositoryProperties, repository, "url", GIT_URL);
+        return new Configuration(repositoryProperties);
+    }
+
+    /**
+     * @return lower bound of the history read from given repository: 'git.repositories.&lt;repository&gt;.commitId1'
+     *         or '.tag1'
+     */
+    public SCMFacade.GitCommitTag getGitRepositoryLowerBound(final String repository) {
+        return new SCMFacade.GitCommitTag(getGitRepositoryProperty(repository, "commitId1"),
+                getGitRepositoryProperty(repository, "tag1"));
+    }
+
+    /**
+     * @return upper bound of the history read from given repository: 'git.repositories.&lt;repository&gt;.commitId2'
+     *         or '.tag2'
+     */
+    public SCMFacade.GitCommitTag getGitRepositoryUpperBound(final String repository) {
+        return new SCMFacade.GitCommitTag(getGitRepositoryProperty(repository, "commitId2"),
+                getGitRepositoryProperty(repository, "tag2"));
+    }
+
+    private String getGitRepositoryProperty(final String repository, final String key) {
+        return properties.getProperty(GIT_REPOSITORIES + "." + repository + "." + key);
+    }
+
+    private void copyGitRepositoryProperty(final Properties target, final String repository, final String key,
+            final String targetKey) {
+        String value = getGitRepositoryProperty(repository, key);
+        if (isNotEmpty(value)) {
+            target.put(targetKey, value);
+        }
+    }
+
     public String getDefectPattern() {
         if (properties.getProperty(DEFECT_PATTERN) == null || properties.getProperty(DEFECT_PATTERN).isEmpty()) {
             return DEFAUT_DEFECT_PATTERN;
@@ -143,6 +220,39 @@ public class Configuration {
         return properties.getProperty(JIRA_ISSUEPATTERN);
     }
 
+    public int getJiraSearchPageSize() {
+        return getIntProperty(JIRA_SEARCH_PAGESIZE, 500);
+    }
+
+    /**
+     * JIRA requests of a run share a single client, which keeps its connections alive between requests. Its pool
+     * can't be configured (see {@link JiraConnectorImpl#CLIENT_MAX_CONNECTIONS}), so a higher parallelism only queues
+     * requests inside the client.
+     */
+    public int getJiraSearchParallelism() {
+        return getIntProperty(JIRA_SEARCH_PARALLELISM, 4);
+    }
+
+    public int getJiraSearchChunkSize() {
+        return Math.max(1, getIntProperty(JIRA_SEARCH_CHUNKSIZE, 100));
+    }
+
+    public int getJiraSearchMaxRetries() {
+        return getIntProperty(JIRA_SEARCH_MAXRETRIES, 5);
+    }
+
+    public int getJiraSearchRequestBudget() {
+        return getIntProperty(JIRA_SEARCH_REQUESTBUDGET, 0);
+    }
+
+    public ImmutableSet<String> getJiraSearchFieldsSet() {
+        return CollectionUtils.stringToImmutableSet(",", properties.getProperty(JIRA_SEARCH_FIELDS));
+    }
+
+    public String getJiraIssueCache() {
+        return properties.getProperty(JIRA_ISSUE_CACHE);
+    }
+
     public String getIssueFilterByComponent() {
         return properties.getProperty(ISSUE_FILTERBY_COMPONENT);
     }
@@ -184,12 +294,15 @@ public class Configuration {
     }
 
     public int getGitCommitLimit() {
-        try{
-            return Integer.parseInt(properties.getProperty(GIT_COMMIT_LIMIT));
-        }
-        catch (NumberFormatException e) {
-            logger.info("Couldn't parse '{}', defaulting value to 100", GIT_COMMIT_LIMIT);
-            return 100;
+        return getIntProperty(GIT_COMMIT_LIMIT, 100);
+    }
+
+    private int getIntProperty(final String key, final int defaultValue) {
+        try {
+            return Integer.parseInt(properties.getProperty(key));
+        } catch (NumberFormatException e) {
+            logger.info("Couldn't parse '{}', defaulting value to {}", key, defaultValue);
+            return defaultValue;
         }
     }
 
@@ -0,0 +1,304 @@
+package com.infusion.relnotesgen;
+
+import com.google.common.base.Predicate;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads ranges of commits with a single, reusable {@link RevWalk}.
+ * <p>
+ * The walk is started at the upper bound and the parents of the lower bound are marked as uninteresting, so only
+ * commits that belong to the requested range are ever visited - no matter how deep in history the range lies.
+ * <p>
+ * An optional {@link RevFilter} is applied inside the walk. Bodies of commits are then not retained, so commits
+ * rejected by the filter never have their message and author decoded.
+ */
+public class GitCommitRangeReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(Configuration.LOGGER_NAME);
+    public static final int NO_LIMIT = -1;
+
+    private final Repository repository;
+    private final RevWalk walk;
+    private RevFilter filter = RevFilter.ALL;
+
+    public GitCommitRangeReader(final Repository repository) {
+        this.repository = repository;
+        this.walk = new RevWalk(repository);
+    }
+
+    /**
+     * @param filter - filter of commits visited by {@link #read(RevCommit, RevCommit, int, Visitor)} and
+     *               {@link #readUntil(RevCommit, Predicate, Visitor)}, {@link RevFilter#ALL} to visit every commit
+     */
+    public void setFilter(final RevFilter filter) {
+        this.filter = filter == null ? RevFilter.ALL : filter;
+        walk.setRetainBody(this.filter == RevFilter.ALL);
+    }
+
+    public RevFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * @return true when the first commit is reachable from (or equal to) the second one
+     */
+    public boolean isAncestor(final RevCommit ancestor, final RevCommit commit) throws IOException {
+        walk.reset();
+        return walk.isMergedInto(ancestor, commit);
+    }
+
+    /**
+     * Resolves given revision (commit id, abbreviated commit id or ref name) to a commit
+     *
+     * @param revision - revision to resolve, may be null
+     * @return resolved commit or null when revision can't be resolved
+     */
+    public RevCommit lookup(final String revision) throws IOException {
+        if (revision == null) {
+            return null;
+        }
+        ObjectId id = repository.resolve(revision);
+        if (id == null) {
+            logger.info("Couldn't resolve '{}' to any commit.", revision);
+            return null;
+        }
+        return withBody(walk.parseCommit(id));
+    }
+
+    /**
+     * Visits commits reachable from upper bound down to (and including) lower bound.
+     *
+     * @param lowerBound - the older commit (bottom of the history), when null or not an ancestor of upper bound
+     *                   the whole history of upper bound is read
+     * @param upperBound - the newer commit (top of the history)
+     * @param limit      - maximal number of commits to visit, {@link #NO_LIMIT} to visit the whole range
+     * @param visitor    - receives commits ordered from new to old
+     * @return the last (oldest) visited commit or null when no commit was visited
+     */
+    public RevCommit read(final RevCommit lowerBound, final RevCommit upperBound, final int limit,
+            final Visitor visitor) throws IOException {
+        return read(lowerBound, null, upperBound, limit, visitor);
+    }
+
+    /**
+     * Visits commits reachable from upper bound down to (and including) lower bound which are not reachable from
+     * given already read commit.
+     *
+     * @param lowerBound - the older commit (bottom of the history), when null or not an ancestor of upper bound
+     *                   the whole history of upper bound is read
+     * @param alreadyRead - commit which history is skipped, usually the upper bound of an already read range
+     * @param upperBound - the newer commit (top of the history)
+     * @param visitor    - receives commits ordered from new to old
+     * @return the last (oldest) visited commit or null when no commit was visited
+     */
+    public RevCommit readAfter(final RevCommit lowerBound, final RevCommit alreadyRead, final RevCommit upperBound,
+            final Visitor visitor) throws IOException {
+        return read(lowerBound, alreadyRead, upperBound, NO_LIMIT, visitor);
+    }
+
+    private RevCommit read(final RevCommit lowerBound, final RevCommit alreadyRead, final RevCommit upperBound,
+            final int limit, final Visitor visitor) throws IOException {
+        if (upperBound == null) {
+            return null;
+        }
+
+        walk.reset();
+        boolean bounded = lowerBound != null && walk.isMergedInto(lowerBound, upperBound);
+        if (lowerBound != null && !bounded) {
+            logger.info("Commit '{}' is not an ancestor of '{}', reading its whole history.", lowerBound.getName(),
+                    upperBound.getName());
+        }
+
+        walk.reset();
+        walk.setRevFilter(filter);
+        walk.markStart(upperBound);
+        if (bounded) {
+            for (RevCommit parent : lowerBound.getParents()) {
+                walk.markUninteresting(parent);
+            }
+        }
+        if (alreadyRead != null) {
+            walk.markUninteresting(alreadyRead);
+        }
+
+        RevCommit last = null;
+        int visited = 0;
+        RevCommit commit;
+        while ((commit = walk.next()) != null) {
+            visit(commit, visitor);
+            last = commit;
+            if (++visited == limit) {
+                break;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Visits commits reachable from upper bound till the first commit (other than upper bound itself) that matches
+     * given predicate. The filter is applied to all commits but the matching one, which is always visited.
+     *
+     * @param upperBound - the newer commit (top of the history)
+     * @param stop       - predicate defining the last commit to visit
+     * @param visitor    - receives commits ordered from new to old
+     * @return the last visited commit, that is the matching commit if such was found
+     */
+    public RevCommit readUntil(final RevCommit upperBound, final Predicate<RevCommit> stop, final Visitor visitor)
+            throws IOException {
+        if (upperBound == null) {
+            return null;
+        }
+
+        walk.reset();
+        // stop predicate has to see every commit, so the filter is applied here rather than by the walk
+        walk.setRevFilter(RevFilter.ALL);
+        walk.markStart(upperBound);
+
+        RevCommit last = null;
+        RevCommit commit;
+        while ((commit = walk.next()) != null) {
+            if (commit != upperBound && stop.apply(commit)) {
+                visit(commit, visitor);
+                return commit;
+            }
+            if (accept(commit)) {
+                visit(commit, visitor);
+                last = commit;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Visits the whole history of upper bound in a single walk, splitting it into ranges which end at commits
+     * matching given predicate (boundaries, e.g. tagged commits).
+     * <p>
+     * Boundaries are numbered in the order they are found, that is topologically from new to old. A commit belongs to
+     * the range of the oldest boundary it is reachable from. Like the lower bound of {@link #read(RevCommit,
+     * RevCommit, int, Visitor)}, a boundary is also visited as part of the range of the next newer boundary when it's
+     * reachable from it. Commits not reachable from any boundary are skipped.
+     *
+     * @param upperBound - the newer commit (top of the history)
+     * @param boundary   - predicate defining the last commit of every range
+     * @param visitor    - receives boundaries and commits of their ranges ordered from new to old
+     */
+    public void readRanges(final RevCommit upperBound, final Predicate<RevCommit> boundary,
+            final RangeVisitor visitor) throws IOException {
+        if (upperBound == null) {
+            return;
+        }
+
+        walk.reset();
+        walk.setRevFilter(RevFilter.ALL);
+        // topological order guarantees all boundaries a commit is reachable from are found before the commit itself
+        walk.sort(RevSort.TOPO);
+        // topological sort buffers the whole history, bodies are parsed one by one when commits are visited
+        boolean retainBody = walk.isRetainBody();
+        walk.setRetainBody(false);
+        walk.markStart(upperBound);
+
+        // commit -> numbers of boundaries it is reachable from, kept only until the commit itself is visited
+        Map<RevCommit, BitSet> reachableFrom = new HashMap<>();
+        int boundaries = 0;
+        try {
+            RevCommit commit;
+            while ((commit = walk.next()) != null) {
+                BitSet ranges = reachableFrom.remove(commit);
+                boolean isBoundary = boundary.apply(commit);
+                if (isBoundary) {
+                    if (ranges == null) {
+                        ranges = new BitSet();
+                    }
+                    ranges.set(boundaries);
+                    visitor.startRange(boundaries++, commit);
+                }
+                if (ranges == null) {
+                    // newer than any boundary
+                    continue;
+                }
+
+                int range = ranges.length() - 1;
+                if (accept(commit)) {
+                    walk.parseBody(commit);
+                    visitor.visit(range, commit);
+                    if (isBoundary && range > 0 && ranges.get(range - 1)) {
+                        visitor.visit(range - 1, commit);
+                    }
+                    commit.disposeBody();
+                }
+
+                RevCommit[] parents = commit.getParents();
+                for (int i = 0; i < parents.length; i++) {
+                    BitSet parentRanges = reachableFrom.get(parents[i]);
+                    if (parentRanges != null) {
+                        parentRanges.or(ranges);
+                    } else {
+                        // the last parent can take over the set, it's not needed after this commit
+                        reachableFrom.put(parents[i], i == parents.length - 1 ? ranges : (BitSet) ranges.clone());
+                    }
+                }
+            }
+        } finally {
+            walk.sort(RevSort.NONE);
+            walk.setRetainBody(retainBody);
+        }
+    }
+
+    // the body is only needed while visiting, dropping it right after keeps memory flat on long ranges
+    private void visit(final RevCommit commit, final Visitor visitor) throws IOException {
+        visitor.visit(withBody(commit));
+        commit.disposeBody();
+    }
+
+    private boolean accept(final RevCommit commit) throws IOException {
+        if (filter == RevFilter.ALL) {
+            return true;
+        }
+        if (filter.requiresCommitBody()) {
+            walk.parseBody(commit);
+        }
+        boolean accepted = filter.include(walk, commit);
+        if (!accepted) {
+            commit.disposeBody();
+        }
+        return accepted;
+    }
+
+    private RevCommit withBody(final RevCommit commit) throws IOException {
+        if (!walk.isRetainBody()) {
+            walk.parseBody(commit);
+        }
+        return commit;
+    }
+
+    public void close() {
+        walk.release();
+    }
+
+    public interface Visitor {
+
+        void visit(RevCommit commit) throws IOException;
+    }
+
+    public interface RangeVisitor {
+
+        /**
+         * Called when the boundary ending the range is found, before any commit of the range is visited.
+         */
+        void startRange(int range, RevCommit boundary) throws IOException;
+
+        void visit(int range, RevCommit commit) throws IOException;
+    }
+}
@@ -1,33 +1,37 @@
 package com.infusion.relnotesgen;
 
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.jgit.api.AddCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.PullResult;
-import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.*;
-import org.eclipse.jgit.errors.NoWorkTreeException;
-import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.dircache.DirCacheEditor;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.FetchResult;
 import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
 import org.eclipse.jgit.transport.TagOpt;
+import org.eclipse.jgit.util.FS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+
 import java.io.File;
-import java.io.FilenameFilter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
@@ -46,6 +50,12 @@ public class GitFacade implements SCMFacade {
     private final Authenticator authenticator;
 
     private Git git;
+    private GitCommitRangeReader rangeReader;
+    private PomVersionResolver versionResolver;
+    private GitTagIndex tagIndex;
+    private CommitRangeCache commitCache;
+    // revision history is read from, remote tracking branch when working on bare repository
+    private String head = Constants.HEAD;
     private Configuration configuration;
 
     public GitFacade(final Configuration configuration, Authenticator authenticator) {
@@ -54,7 +64,12 @@ public class GitFacade implements SCMFacade {
         this.configuration = configuration;
         try {
             File gitRepo = new File(configuration.getGitDirectory());
-            if (gitRepo.exists() && searchGit(gitRepo)) {
+            if (configuration.isGitBare()) {
+                openBareRepository(gitRepo);
+                fetchBranchAndTags();
+                head = Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/" + configuration.getGitBranch();
+
+            } else if (gitRepo.exists() && searchGit(gitRepo)) {
                 logger.info("Found git repository under {}", configuration.getGitDirectory());
 
                 pull();
@@ -75,11 +90,49 @@ public class GitFacade implements SCMFacade {
                 pull();
             }
 
+            rangeReader = new GitCommitRangeReader(git.getRepository());
+            setCommitFilter(CommitFilters.parse(configuration.getGitCommitFilter()));
+            if (isNotBlank(configuration.getGitCommitCache())) {
+                commitCache = new CommitRangeCache(new File(configuration.getGitCommitCache()),
+                        configuration.getJiraIssuePattern() + "|" + configuration.getDefectPattern());
+            }
+            versionResolver = new PomVersionResolver(git.getRepository());
+            tagIndex = new GitTagIndex(git);
+
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    private void openBareRepository(final File gitDir) throws IOException, GitAPIException {
+        if (RepositoryCache.FileKey.isGitRepository(gitDir, FS.DETECTED)) {
+            logger.info("Found bare git repository under {}", gitDir.getAbsolutePath());
+            git = new Git(new FileRepositoryBuilder().setGitDir(gitDir).setBare().build());
+        } else {
+            logger.info("No git repository under {}, initializing bare one...", gitDir.getAbsolutePath());
+            git = Git.init().setBare(true).setDirectory(gitDir).call();
+        }
+
+        StoredConfig config = git.getRepository().getConfig();
+        config.setString("remote", Constants.DEFAULT_REMOTE_NAME, "url", configuration.getGitUrl());
+        config.save();
+    }
+
+    private void fetchBranchAndTags() throws GitAPIException {
+        String branch = configuration.getGitBranch();
+        logger.info("Fetching branch {} and tags from {}", branch, configuration.getGitUrl());
+
+        long startTime = System.currentTimeMillis();
+
+        RefSpec branchSpec = new RefSpec("+" + Constants.R_HEADS + branch + ":" + Constants.R_REMOTES
+                + Constants.DEFAULT_REMOTE_NAME + "/" + branch);
+        FetchResult result = authenticator.authenticate(git.fetch()).setRemote(Constants.DEFAULT_REMOTE_NAME)
+                .setRefSpecs(branchSpec).setTagOpt(TagOpt.FETCH_TAGS).call();
+
+        logger.info("Fetch is done. It took {} milis. {}", System.currentTimeMillis() - startTime,
+                result.getMessages());
+    }
+
     private void fetchTags() {
         logger.info("Performing fetch tags...");
         git.fetch().setTagOpt(TagOpt.FETCH_TAGS);
@@ -145,6 +198,14 @@ public class GitFacade implements SCMFacade {
     @Override
     public Response readByCommit(final GitCommitTag commitTagRequestedLowerBound,
             final GitCommitTag commitTagRequestedUpperBound) {
+        CommitCollector collector = new CommitCollector();
+        return collector.toResponse(readByCommit(commitTagRequestedLowerBound, commitTagRequestedUpperBound,
+                collector));
+    }
+
+    @Override
+    public Response readByCommit(final GitCommitTag commitTagRequestedLowerBound,
+            final GitCommitTag commitTagRequestedUpperBound, final CommitHandler handler) {
         logger.info("Attempting to read history between '{}' and '{}'.", commitTagRequestedLowerBound,
                 commitTagRequestedUpperBound);
 
@@ -164,162 +225,232 @@ public class GitFacade implements SCMFacade {
 
         if (lowerBound.getCommit() != null && upperBound.getCommit() != null) {
             // read everything in between
-            return readBetweenCommits(lowerBound, upperBound);
+            return readBetweenCommits(lowerBound, upperBound, handler);
         }
         if (commitTagRequestedLowerBound.getCommit() != null) {
             // upper bound null -> read from the latest all the way to lower bound
-            return readLatestCommits(lowerBound);
+            return readLatestCommits(lowerBound, handler);
         } else {
             // lower bound null -> read from the upper bound all the way to the limit
             final int limit = configuration.getGitCommitLimit();
-            return readOldestCommits(upperBound, limit);
+            return readOldestCommits(upperBound, limit, handler);
         }
     }
 
-    private Response readOldestCommits(final GitCommitTag commitTagRequestedUpperBound, final int limit) {
+    private Response readOldestCommits(final GitCommitTag commitTagRequestedUpperBound, final int limit,
+            final CommitHandler handler) {
         try {
-            final Iterable<RevCommit> log = git.log().call();
-            final Set<Commit> commits = new HashSet<>();
-
-            RevCommit latestCommit = null;
-            RevCommit oldestCommit = null;
-
+            final RevCommit latestCommit = rangeReader.lookup(commitTagRequestedUpperBound.getCommit());
             // commits are ordered from new to old
-            for (RevCommit commit : log) {
-                // skip commits that are before commit 1
-
-                if (latestCommit == null) {
-                    if (commit.getId().getName().equals(commitTagRequestedUpperBound.getCommit())) {
-                        // found commit 1 - this is where history starts
-                        latestCommit = commit;
-                    } else {
-                        // do not process commit
-                        continue;
-                    }
-                }
-
-                // add found commit to response set
-                commits.add(new Commit(commit.getFullMessage(), commit.getId().getName(),
-                        commit.getAuthorIdent().getName()));
-                oldestCommit = commit;
+            final CommitStream commits = new CommitStream(handler);
+            final RevCommit oldestCommit = rangeReader.read(null, latestCommit, limit, commits);
 
-                if (commits.size() == limit) {
-                    // didn't found oldest, had to stop because of commit limit
-                    logger.info("Used limit of {} commits for history and reached '{}'", limit,
-                            oldestCommit.getId().getName());
-                    break;
-                }
-            }
-
-            logger.info("Found {} commit messages.", commits.size());
-            if (commits.size() == 0) {
+            logger.info("Found {} commit messages.", commits.count);
+            if (commits.count == 0) {
                 throw new RuntimeException(String.format(
                         "No commit were found for given commit ids [%s, empty]. Maybe branch is badly chosen.",
                         commitTagRequestedUpperBound.getCommit()));
             }
 
-            return new Response(commits, getVersion(latestCommit),
+            if (commits.count == limit) {
+                // didn't found oldest, had to stop because of commit limit
+                logger.info("Used limit of {} commits for history and reached '{}'", limit,
+                        oldestCommit.getId().getName());
+            }
+
+            return new Response(commits.count, getVersion(latestCommit),
                     new GitCommitTag(oldestCommit.getId().getName(), null), commitTagRequestedUpperBound,
                     this.configuration.getGitBranch());
-        } catch (GitAPIException e) {
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private Response readLatestCommits(final GitCommitTag commitTagRequestedLowerBound) {
+    private Response readLatestCommits(final GitCommitTag commitTagRequestedLowerBound,
+            final CommitHandler handler) {
         try {
-            RevCommit latestCommit = null;
-            final Iterable<RevCommit> log = git.log().call();
-            final Set<Commit> commits = new HashSet<>();
+            final RevCommit latestCommit = rangeReader.lookup(head);
 
             // 'Requested' are commits or tags that user specified, 'Used' are the ones that were used for creating release notes
             GitCommitTag commitTagUsedUpperBound = null;
+            if (latestCommit != null) {
+                commitTagUsedUpperBound = new GitCommitTag(latestCommit.getId().getName(), null);
+                logger.info("Reading history between '{}' and '{}'.", commitTagRequestedLowerBound,
+                        commitTagUsedUpperBound);
+            }
 
             // commits are ordered from new to old
-            for (RevCommit commit : log) {
-                // skip commits that are before commit 1
-
-                if (latestCommit == null) {
-                    // found commit 1 - this is where history starts
-                    latestCommit = commit;
-                    commitTagUsedUpperBound = new GitCommitTag(commit.getId().getName(), null);
-                    logger.info("Reading history between '{}' and '{}'.", commitTagRequestedLowerBound,
-                            commitTagUsedUpperBound);
-                }
-
-                // add found commit to response set
-                commits.add(new Commit(commit.getFullMessage(), commit.getId().getName(),
-                        commit.getAuthorIdent().getName()));
-
-                if (commit.getId().getName().equals(commitTagRequestedLowerBound.getCommit())) {
-                    // found oldest commit
-                    break;
-                }
-            }
+            final CommitStream commits = new CommitStream(handler);
+            readRange(rangeReader.lookup(commitTagRequestedLowerBound.getCommit()), latestCommit, commits);
 
-            logger.info("Found {} commit messages.", commits.size());
-            if (commits.size() == 0) {
+            logger.info("Found {} commit messages.", commits.count);
+            if (commits.count == 0) {
                 throw new RuntimeException(
                         String.format("No commit were found for given commit ids %s, %s. Maybe branch is badly chosen.",
                                 commitTagRequestedLowerBound.getCommit(), commitTagRequestedLowerBound.getCommit()));
             }
 
-            return new Response(commits, getVersion(latestCommit), commitTagRequestedLowerBound,
+            return new Response(commits.count, getVersion(latestCommit), commitTagRequestedLowerBound,
                     commitTagUsedUpperBound, this.configuration.getGitBranch());
-        } catch (GitAPIException e)
-
-        {
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    @Override
+    public void setCommitFilter(final RevFilter filter) {
+        logger.info("Reading only commits matching {}", filter);
+        rangeReader.setFilter(filter);
+    }
+
     private Response readBetweenCommits(final GitCommitTag commitTagRequestedLowerBound,
-            final GitCommitTag commitTagRequestedUpperBound) {
+            final GitCommitTag commitTagRequestedUpperBound, final CommitHandler handler) {
         try {
             logger.info("Reading history between '{}' and '{}'.", commitTagRequestedLowerBound,
                     commitTagRequestedUpperBound);
 
-            final Iterable<RevCommit> log = git.log().call();
-            final Set<Commit> commits = new HashSet<>();
-            RevCommit latestCommitForVersion = null;
-
-            for (RevCommit commit : log) {
-                // skip commits that are before commit 1
-
-                if (latestCommitForVersion == null) {
-                    if (commit.getId().getName().equals(commitTagRequestedUpperBound.getCommit())) {
-                        // found commit 1 - this is where history starts
-                        latestCommitForVersion = commit;
-                    } else {
-                        // do not process commit
-                        continue;
-                    }
-                }
-
-                // add found commit to response set
-                commits.add(new Commit(commit.getFullMessage(), commit.getId().getName(),
-                        commit.getAuthorIdent().getName()));
+            final RevCommit latestCommitForVersion = rangeReader.lookup(commitTagRequestedUpperBound.getCommit());
+            final CommitStream commits = new CommitStream(handler);
+            readRange(rangeReader.lookup(commitTagRequestedLowerBound.getCommit()), latestCommitForVersion, commits);
 
-                if (commit.getId().getName().equals(commitTagRequestedLowerBound.getCommit())) {
-                    // found oldest commit
-                    break;
-                }
-            }
-
-            logger.info("Found {} commit messages.", commits.size());
-            if (commits.size() == 0) {
+            logger.info("Found {} commit messages.", commits.count);
+            if (commits.count == 0) {
                 throw new RuntimeException(
                         "No commit were found for given commit ids " + commitTagRequestedLowerBound.getCommit() + ", "
                                 + commitTagRequestedLowerBound.getCommit() + ". Maybe branch is badly chosen.");
             }
 
-            return new Response(commits, getVersion(latestCommitForVersion), commitTagRequestedLowerBound,
+            return new Response(commits.count, getVersion(latestCommitForVersion), commitTagRequestedLowerBound,
                     commitTagRequestedUpperBound, this.configuration.getGitBranch());
-        } catch (GitAPIException e) {
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Reads the range answering it from the commit cache when possible. A range which upper bound is a descendant of
+     * a cached range upper bound (with the same lower bound) is read only down to the cached one.
+     */
+    private void readRange(final RevCommit lowerBound, final RevCommit upperBound, final CommitStream commits)
+            throws IOException {
+        if (commitCache == null || upperBound == null || !(commits.handler instanceof ParsedCommitHandler)) {
+            rangeReader.read(lowerBound, upperBound, GitCommitRangeReader.NO_LIMIT, commits);
+            return;
+        }
+
+        String lowerBoundId = lowerBound == null ? null : lowerBound.getName();
+        String filter = rangeReader.getFilter().toString();
+        List<ParsedCommit> cached = commitCache.get(lowerBoundId, upperBound.getName(), filter);
+        if (cached != null) {
+            commits.replay(cached);
+            return;
+        }
+
+        RevCommit cachedUpperBound = null;
+        for (String cachedUpperBoundId : commitCache.getUpperBounds(lowerBoundId, filter)) {
+            RevCommit candidate;
+            try {
+                candidate = rangeReader.lookup(cachedUpperBoundId);
+            } catch (MissingObjectException e) {
+                continue;
+            }
+            if (candidate != null && rangeReader.isAncestor(candidate, upperBound)
+                    && (cachedUpperBound == null || rangeReader.isAncestor(cachedUpperBound, candidate))) {
+                cachedUpperBound = candidate;
+            }
+        }
+
+        commits.record();
+        if (cachedUpperBound == null) {
+            rangeReader.read(lowerBound, upperBound, GitCommitRangeReader.NO_LIMIT, commits);
+        } else {
+            cached = commitCache.get(lowerBoundId, cachedUpperBound.getName(), filter);
+            if (cached == null) {
+                rangeReader.read(lowerBound, upperBound, GitCommitRangeReader.NO_LIMIT, commits);
+            } else {
+                logger.info("Reading history down to cached commit '{}'.", cachedUpperBound.getName());
+                rangeReader.readAfter(lowerBound, cachedUpperBound, upperBound, commits);
+                commits.replay(cached);
+            }
+        }
+        commits.flush();
+        commitCache.put(lowerBoundId, upperBound.getName(), filter, commits.recorded);
+    }
+
+    /**
+     * Turns visited commits into {@link Commit}s and passes them to the handler, only the number of commits is kept.
+     */
+    private static class CommitStream implements GitCommitRangeReader.Visitor {
+
+        private final CommitHandler handler;
+        // parsed commits to be cached, null when commits are not cached
+        private List<ParsedCommit> recorded;
+        // commits to be cached which are not parsed yet, they're parsed in batches
+        private final List<Commit> pending = new ArrayList<>();
+        private int count;
+
+        CommitStream(final CommitHandler handler) {
+            this.handler = handler;
+        }
+
+        void record() {
+            recorded = new ArrayList<>();
+        }
+
+        @Override
+        public void visit(final RevCommit revCommit) {
+            Commit commit = new Commit(revCommit.getFullMessage(), revCommit.getId().getName(),
+                    revCommit.getAuthorIdent().getName());
+            if (recorded == null) {
+                handler.handle(commit);
+            } else {
+                pending.add(commit);
+                if (pending.size() >= ParsedCommitInfo.BATCH_SIZE) {
+                    flush();
+                }
+            }
+            count++;
+        }
+
+        /**
+         * Parses and handles pending commits, must be called before the recorded commits are read
+         */
+        void flush() {
+            if (!pending.isEmpty()) {
+                recorded.addAll(((ParsedCommitHandler) handler).handleAll(pending));
+                pending.clear();
+            }
+        }
+
+        void replay(final List<ParsedCommit> commits) {
+            if (recorded != null) {
+                flush();
+            }
+            for (ParsedCommit commit : commits) {
+                ((ParsedCommitHandler) handler).handle(commit);
+                count++;
+            }
+            if (recorded != null) {
+                recorded.addAll(commits);
+            }
+        }
+    }
+
+    private static class CommitCollector implements CommitHandler {
+
+        private final Set<Commit> commits = new HashSet<>();
+
+        @Override
+        public void handle(final Commit commit) {
+            commits.add(commit);
+        }
+
+        Response toResponse(final Response response) {
+            return new Response(commits, response.version, response.commitTag1, response.commitTag2,
+                    response.gitBranch);
+        }
+    }
+
     /**
      * Reads git log by commit ids
      *
@@ -333,52 +464,22 @@ public class GitFacade implements SCMFacade {
     }
 
     private String getVersion(final RevCommit commit) {
-        logger.info("Searching for version in commit '{}'", commit.getFullMessage());
         try {
-            logger.info("Checkout to commit '{}'", commit.getId().getName());
-            git.checkout().setName(commit.getId().getName()).call();
-
-            File pomXmlParent = git.getRepository().getDirectory().getParentFile();
-            logger.info("Searching for pom.xml in directory '{}'", pomXmlParent.getAbsolutePath());
+            logger.info("Searching for pom.xml in tree of commit '{}'", commit.getId().getName());
+            String version = versionResolver.getVersion(commit);
 
-            File[] pomXmls = pomXmlParent.listFiles(new FilenameFilter() {
-
-                @Override
-                public boolean accept(final File dir, final String name) {
-                    return "pom.xml".equals(name);
-                }
-            });
-
-            if (pomXmls.length == 0) {
+            if (version == null) {
                 logger.warn("Coulnd't find pom.xml file using default version {}", DEFAULT_VERSION);
                 return DEFAULT_VERSION;
             }
 
-            String version = getVersion(pomXmls[0]);
-            logger.info("Found version {} in pom.xml {}", version, pomXmls[0].getAbsolutePath());
+            logger.info("Found version {} in pom.xml of commit {}", version, commit.getId().getName());
             return version;
-        } catch (Exception e) {
+        } catch (IOException e) {
             throw new RuntimeException(e);
-        } finally {
-            try {
-                checkout();
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
         }
     }
 
-    private String getVersion(final File pomXml)
-            throws ParserConfigurationException, SAXException, IOException, XPathExpressionException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.parse(pomXml);
-        XPathFactory xPathfactory = XPathFactory.newInstance();
-        XPath xpath = xPathfactory.newXPath();
-        XPathExpression expr = xpath.compile("/project/version/text()");
-        return expr.evaluate(doc);
-    }
-
     /**
      * Reads git log by commit tags
      *
@@ -388,210 +489,250 @@ public class GitFacade implements SCMFacade {
      */
     @Override
     public Response readByTag(final String tagLowerBound, final String tagUpperBound) {
-        try {
-            Iterable<Ref> tags = git.tagList().call();
-
-            GitCommitTag commitTag1 = GitCommitTag.Empty;
-            GitCommitTag commitTag2 = GitCommitTag.Empty;
-
-            for (Ref tag : tags) {
-                if (isNotBlank(tagLowerBound) && tag.getName().endsWith(tagLowerBound)) {
-                    final String commit1 = retrieveCommitIdFromTag(tag);
-                    commitTag1 = new GitCommitTag(commit1, tag.getName());
-                    logger.info("Found tag '{}' using commit id '{}'.", tag.getName(), commit1);
-                }
-                if (isNotBlank(tagUpperBound) && tag.getName().endsWith(tagUpperBound)) {
-                    final String commit2 = retrieveCommitIdFromTag(tag);
-                    commitTag2 = new GitCommitTag(commit2, tag.getName());
-                    logger.info("Found tag '{}' using commit id '{}'.", tag.getName(), commit2);
-                }
-            }
+        return readByCommit(findTag(tagLowerBound), findTag(tagUpperBound));
+    }
 
-            if (isNotBlank(tagLowerBound) && commitTag1.getTag() == null) {
-                logger.info("Tag '{}' NOT FOUND.", tagLowerBound);
-            }
-            if (isNotBlank(tagUpperBound) && commitTag2.getTag() == null) {
-                logger.info("Tag '{}' NOT FOUND.", tagUpperBound);
-            }
+    private GitCommitTag findTag(final String tagName) {
+        if (!isNotBlank(tagName)) {
+            return GitCommitTag.Empty;
+        }
 
-            return readByCommit(commitTag1, commitTag2);
-        } catch (GitAPIException e) {
-            throw new RuntimeException(e);
+        String fullTagName = tagIndex.getFullTagName(tagName);
+        if (fullTagName == null) {
+            logger.info("Tag '{}' NOT FOUND.", tagName);
+            return GitCommitTag.Empty;
         }
+
+        String commit = tagIndex.getCommit(fullTagName).getName();
+        logger.info("Found tag '{}' using commit id '{}'.", fullTagName, commit);
+        return new GitCommitTag(commit, fullTagName);
     }
 
     public String getCommitForTagName(final String tagName) {
-        try {
-            Iterable<Ref> tags = git.tagList().call();
-
-            for (Ref tag : tags) {
-                // todo: why ends with?
-                if (isNotBlank(tagName) && tag.getName().endsWith(tagName)) {
-                    String commit = retrieveCommitIdFromTag(tag);
-                    logger.info("Found tag '{}' using commit id '{}'.", tag.getName(), commit);
-
-                    return commit;
-                }
-            }
-
+        ObjectId commit = isNotBlank(tagName) ? tagIndex.getCommit(tagName) : null;
+        if (commit == null) {
             throw new RuntimeException("Tag '" + tagName + "' NOT FOUND.");
-
-        } catch (GitAPIException e) {
-            throw new RuntimeException(e);
         }
-    }
 
-    private String retrieveCommitIdFromTag(final Ref tag) {
-        Ref peeledTag = git.getRepository().peel(tag);
-        if (peeledTag.getPeeledObjectId() == null) {
-            //http://dev.eclipse.org/mhonarc/lists/jgit-dev/msg01706.html
-            //when peeled tag is null it means this is 'lighweight' tag and object id points to commit straight forward
-            return peeledTag.getObjectId().getName();
-        } else {
-            return peeledTag.getPeeledObjectId().getName();
-        }
+        logger.info("Found tag '{}' using commit id '{}'.", tagName, commit.getName());
+        return commit.getName();
     }
 
     @Override
     public Response readyTillLastTag() {
-        try {
-            Iterable<Ref> tags = git.tagList().call();
-            Dictionary<String, Set<String>> commitsWithTags = new Hashtable<>();
-
-            for (Ref tag : tags) {
-                // todo: why ends with?
-                String commit = retrieveCommitIdFromTag(tag);
-                logger.info("Found tag '{}' using commit id '{}'.", tag.getName(), commit);
-                if (commitsWithTags.get(commit) != null) {
-                    commitsWithTags.get(commit).add(tag.getName());
-                } else {
-                    HashSet<String> tagsList = new HashSet<>();
-                    tagsList.add(tag.getName());
-                    commitsWithTags.put(commit, tagsList);
-                }
-            }
-
-            // now read commits
-            final Iterable<RevCommit> log = git.log().call();
-            final Set<Commit> commits = new HashSet<>();
-            RevCommit latestCommit = null;
-            String lastTag = null;
-            String lastCommit = null;
-
-            for (RevCommit commit : log) {
+        CommitCollector collector = new CommitCollector();
+        return collector.toResponse(readyTillLastTag(collector));
+    }
 
-                // add found commit to response set
-                commits.add(new Commit(commit.getFullMessage(), commit.getId().getName(),
-                        commit.getAuthorIdent().getName()));
+    @Override
+    public Response readyTillLastTag(final CommitHandler handler) {
+        try {
+            // now read commits, commits are ordered from new to old
+            final RevCommit latestCommit = rangeReader.lookup(head);
+            final CommitStream commits = new CommitStream(handler);
+            final RevCommit oldestCommit = rangeReader.readUntil(latestCommit, new Predicate<RevCommit>() {
 
-                if (latestCommit != null) {
+                @Override
+                public boolean apply(final RevCommit commit) {
                     // check if we reached a tag
-                    Set<String> tagsFound = commitsWithTags.get(commit.getId().getName());
-                    if (tagsFound != null) {
-                        lastCommit = commit.getId().getName();
-                        lastTag = tagsFound.toArray()[0].toString();
-                        logger.info("Found ending tag '{}' for commit {}", lastTag, lastCommit);
-                        break;
-                    }
+                    return tagIndex.isTagged(commit);
                 }
+            }, commits);
+            String lastTag = null;
+            String lastCommit = null;
 
-                // save the latest commit for version extraction
-                if (latestCommit == null) {
-                    latestCommit = commit;
+            if (oldestCommit != null && oldestCommit != latestCommit) {
+                SortedSet<String> tagsFound = tagIndex.getTags(oldestCommit);
+                if (!tagsFound.isEmpty()) {
+                    lastCommit = oldestCommit.getId().getName();
+                    lastTag = tagsFound.first();
+                    logger.info("Found ending tag '{}' for commit {}", lastTag, lastCommit);
                 }
             }
 
-            logger.info("Found {} commit messages.", commits.size());
-            if (commits.size() == 0) {
+            logger.info("Found {} commit messages.", commits.count);
+            if (commits.count == 0) {
                 throw new RuntimeException("No commit were found. Maybe branch is badly chosen.");
             }
 
-            return new Response(commits, getVersion(latestCommit), new GitCommitTag(lastCommit, lastTag),
+            return new Response(commits.count, getVersion(latestCommit), new GitCommitTag(lastCommit, lastTag),
                     new GitCommitTag(latestCommit.getId().getName(), null), this.configuration.getGitBranch());
 
-        } catch (GitAPIException e) {
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
     @Override
-    public boolean pushReleaseNotes(final File releaseNotes, final String version) {
-        File notesDirectory = new File(git.getRepository().getDirectory().getParentFile(), RELEASES_DIR);
-        boolean directoryCreated = false;
-        if (!notesDirectory.exists()) {
-            logger.info("Directory with release notes doesn't exist creating it in {}",
-                    notesDirectory.getAbsolutePath());
-            directoryCreated = notesDirectory.mkdir();
-        }
-        logger.info("Copying release notes to {} (will overwrite if aleady exists)", notesDirectory.getAbsolutePath());
-        File releaseNotesInGit = new File(notesDirectory, releaseNotes.getName());
+    public List<Response> readAllTagRanges(final Function<String, ? extends CommitHandler> handlers) {
         try {
-            Files.copy(releaseNotes.toPath(), releaseNotesInGit.toPath(), StandardCopyOption.REPLACE_EXISTING);
-        } catch (IOException e1) {
-            throw new RuntimeException(e1);
+            final RevCommit latestCommit = rangeReader.lookup(head);
+            // tags and their ranges are found from new to old
+            final List<RevCommit> tagCommits = new ArrayList<>();
+            final List<GitCommitTag> tags = new ArrayList<>();
+            final List<CommitStream> ranges = new ArrayList<>();
+            // history of the oldest tag has no lower tag, its oldest commit is used instead
+            final RevCommit[] oldestCommit = new RevCommit[1];
+            rangeReader.readRanges(latestCommit, new Predicate<RevCommit>() {
+
+                @Override
+                public boolean apply(final RevCommit commit) {
+                    return tagIndex.isTagged(commit);
+                }
+            }, new GitCommitRangeReader.RangeVisitor() {
+
+                @Override
+                public void startRange(final int range, final RevCommit boundary) {
+                    String tag = tagIndex.getTags(boundary).first();
+                    logger.info("Found tag '{}' for commit {}", tag, boundary.getName());
+                    tagCommits.add(boundary);
+                    tags.add(new GitCommitTag(boundary.getName(), tag));
+                    ranges.add(new CommitStream(handlers.apply(tag)));
+                }
+
+                @Override
+                public void visit(final int range, final RevCommit commit) {
+                    ranges.get(range).visit(commit);
+                    oldestCommit[0] = commit;
+                }
+            });
+            logger.info("Found {} tags on branch {}.", tags.size(), configuration.getGitBranch());
+
+            List<Response> responses = new ArrayList<>();
+            for (int i = tags.size() - 1; i >= 0; i--) {
+                GitCommitTag previousTag = i + 1 < tags.size() ? tags.get(i + 1)
+                        : new GitCommitTag(oldestCommit[0] == null ? null : oldestCommit[0].getName(), null);
+                responses.add(new Response(ranges.get(i).count, getVersion(tagCommits.get(i)), previousTag,
+                        tags.get(i), this.configuration.getGitBranch()));
+            }
+            return responses;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
+    }
 
-        logger.info("Pushing release notes {}", releaseNotesInGit.getAbsolutePath());
+    @Override
+    public boolean pushReleaseNotes(final File releaseNotes, final String version) {
+        Repository repository = git.getRepository();
+        String path = RELEASES_DIR + "/" + releaseNotes.getName();
+        GitFileCommitter committer = new GitFileCommitter(repository);
         try {
-            AddCommand addCommand = git.add();
-            if (directoryCreated) {
-                addCommand.addFilepattern(RELEASES_DIR);
-            } else {
-                addCommand.addFilepattern(RELEASES_DIR + "/" + releaseNotes.getName());
+            RevCommit parent = rangeReader.lookup(head);
+            if (parent == null) {
+                logger.error("Couldn't resolve '{}', cancelling pushing release notes.", head);
+                return false;
             }
-            addCommand.call();
 
-            Set<String> changes = validateChangesStatusOfReleaseNotes();
-            if (changes == null) {
+            ObjectId blobId = committer.insertBlob(Files.readAllBytes(releaseNotes.toPath()));
+            String commitMessage = buildCommitMessage(version);
+            logger.info("Committing file '{}' with message '{}', committer name {}, committer mail {}", path,
+                    commitMessage, configuration.getGitCommitterName(), configuration.getGitCommitterMail());
+            ObjectId commitId = committer.commitFile(parent, RELEASES_DIR, releaseNotes.getName(), blobId,
+                    new PersonIdent(configuration.getGitCommitterName(), configuration.getGitCommitterMail()),
+                    commitMessage);
+            if (commitId == null) {
+                logger.error(
+                        "There are no changes to be commited, probably identical release notes has been already generated and pushed to repository.");
                 return false;
             }
 
-            String commitMessage = buildCommitMessage(version);
-            logger.info("Committing file '{}' with message '{}', committer name {}, committer mail {}",
-                    changes.iterator().next(), commitMessage, configuration.getGitCommitterName(),
-                    configuration.getGitCommitterMail());
-            git.commit().setCommitter(configuration.getGitCommitterName(), configuration.getGitCommitterMail())
-                    .setMessage(commitMessage).call();
+            String branchRef = Constants.R_HEADS + configuration.getGitBranch();
+            if (repository.isBare()) {
+                // local branch only mirrors what is going to be pushed, remote tracking branch is the source of truth
+                updateRef(branchRef, null, commitId, commitMessage);
+            } else {
+                updateRef(Constants.HEAD, parent, commitId, commitMessage);
+                updateWorkingTree(releaseNotes, path, blobId);
+            }
 
             logger.info("Pushing changes to remote...");
-            Iterable<PushResult> pushResults = authenticator.authenticate(git.push()).call();
+            Iterable<PushResult> pushResults = authenticator.authenticate(git.push())
+                    .setRemote(Constants.DEFAULT_REMOTE_NAME).setRefSpecs(new RefSpec(branchRef + ":" + branchRef))
+                    .call();
             logger.info("Push call has ended.");
-            for (PushResult pushResult : pushResults) {
-                logger.info("Push message: {}", pushResult.getMessages());
+            if (!isPushed(pushResults, branchRef)) {
+                return false;
+            }
+            if (repository.isBare()) {
+                // remote of bare repository has no fetch spec, so the push doesn't move the remote tracking branch
+                // later reads and pushes start from
+                updateRef(head, parent, commitId, commitMessage);
             }
             return true;
-        } catch (GitAPIException e) {
+        } catch (IOException | GitAPIException e) {
             logger.error("Error during pushing release notes", e);
             return false;
         }
     }
 
-    private Set<String> validateChangesStatusOfReleaseNotes() throws NoWorkTreeException, GitAPIException {
-        Status status = git.status().call();
-        Set<String> added = status.getAdded();
-        Set<String> modified = status.getModified();
-        Set<String> changed = status.getChanged();
-        if (added.size() > 1 || modified.size() > 1 || changed.size() > 1) {
-            logger.error(
-                    "There are more than one change [added({}), modified({}), changed({})] to be commited, cancelling pushing release notes.",
-                    added.size(), modified.size(), changed.size());
-            return null;
-        }
-        if (added.isEmpty() && modified.isEmpty() && changed.isEmpty()) {
-            logger.error(
-                    "There are no changes to be commited, probably identical release notes has been already generated and pushed to repository.");
-            return null;
+    private static boolean isPushed(final Iterable<PushResult> pushResults, final String refName) {
+        boolean pushed = false;
+        for (PushResult pushResult : pushResults) {
+            logger.info("Push message: {}", pushResult.getMessages());
+            RemoteRefUpdate update = pushResult.getRemoteUpdate(refName);
+            if (update == null) {
+                continue;
+            }
+            if (update.getStatus() != RemoteRefUpdate.Status.OK
+                    && update.getStatus() != RemoteRefUpdate.Status.UP_TO_DATE) {
+                logger.error("Remote refused '{}': {} {}", refName, update.getStatus(),
+                        StringUtils.defaultString(update.getMessage()));
+                return false;
+            }
+            pushed = true;
         }
-        if (!added.isEmpty()) {
-            return added;
+        return pushed;
+    }
+
+    private void updateRef(final String refName, final ObjectId expectedOldId, final ObjectId newId,
+            final String commitMessage) throws IOException {
+        RefUpdate refUpdate = git.getRepository().updateRef(refName);
+        refUpdate.setNewObjectId(newId);
+        refUpdate.setRefLogMessage("commit: " + commitMessage, false);
+        if (expectedOldId == null) {
+            refUpdate.setForceUpdate(true);
+        } else {
+            refUpdate.setExpectedOldObjectId(expectedOldId);
         }
-        if (!modified.isEmpty()) {
-            return modified;
+        RefUpdate.Result result = refUpdate.update();
+        switch (result) {
+            case NEW:
+            case FAST_FORWARD:
+            case FORCED:
+                return;
+            default:
+                throw new IOException("Couldn't update '" + refName + "' to " + newId.getName() + ": " + result);
         }
-        if (!changed.isEmpty()) {
-            return changed;
+    }
+
+    /**
+     * Puts the committed file into working tree and index, so they stay in sync with HEAD. Only the single index
+     * entry is replaced, working tree is not scanned.
+     */
+    private void updateWorkingTree(final File releaseNotes, final String path, final ObjectId blobId)
+            throws IOException {
+        Repository repository = git.getRepository();
+        final File releaseNotesInGit = new File(repository.getWorkTree(), path);
+        releaseNotesInGit.getParentFile().mkdirs();
+        Files.copy(releaseNotes.toPath(), releaseNotesInGit.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        DirCache index = repository.lockDirCache();
+        try {
+            DirCacheEditor editor = index.editor();
+            editor.add(new DirCacheEditor.PathEdit(path) {
+
+                @Override
+                public void apply(final DirCacheEntry entry) {
+                    entry.setFileMode(FileMode.REGULAR_FILE);
+                    entry.setObjectId(blobId);
+                    entry.setLength(releaseNotesInGit.length());
+                    entry.setLastModified(releaseNotesInGit.lastModified());
+                }
+            });
+            editor.commit();
+        } finally {
+            index.unlock();
         }
-        return null;
     }
 
     private String buildCommitMessage(final String version) {
@@ -605,6 +746,12 @@ public class GitFacade implements SCMFacade {
 
     @Override
     public void close() {
+        if (rangeReader != null) {
+            rangeReader.close();
+        }
+        if (tagIndex != null) {
+            tagIndex.close();
+        }
         git.close();
     }
 }
@@ -0,0 +1,143 @@
+package com.infusion.relnotesgen;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+import java.io.IOException;
+
+/**
+ * Commits a single file on top of a given commit writing objects straight into the object database.
+ * <p>
+ * Neither the working tree nor the index is read: only the root tree and the tree of the file's directory are
+ * rewritten, so the cost depends on the size of the file and of those two trees, not on the size of the repository.
+ */
+public class GitFileCommitter {
+
+    private final Repository repository;
+
+    public GitFileCommitter(final Repository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * @param parent    - commit the new commit is created on top of
+     * @param directory - name of the top level directory holding the file
+     * @param fileName  - name of the file
+     * @param blobId    - id of the file content, see {@link #insertBlob(byte[])}
+     * @param ident     - author and committer of the new commit
+     * @param message   - commit message
+     * @return id of the new commit or null when the file already has given content in parent commit
+     */
+    public ObjectId commitFile(final RevCommit parent, final String directory, final String fileName,
+            final ObjectId blobId, final PersonIdent ident, final String message) throws IOException {
+        ObjectReader reader = repository.newObjectReader();
+        ObjectInserter inserter = repository.newObjectInserter();
+        try {
+            ObjectId rootTree = parent.getTree();
+            TreeWalk existingFile = TreeWalk.forPath(reader, directory + "/" + fileName, rootTree);
+            if (existingFile != null) {
+                try {
+                    if (blobId.equals(existingFile.getObjectId(0))) {
+                        return null;
+                    }
+                } finally {
+                    existingFile.release();
+                }
+            }
+
+            ObjectId directoryTree = findTree(reader, directory, rootTree);
+            ObjectId newDirectoryTree = putEntry(inserter, reader, directoryTree, fileName, FileMode.REGULAR_FILE,
+                    blobId);
+            ObjectId newRootTree = putEntry(inserter, reader, rootTree, directory, FileMode.TREE, newDirectoryTree);
+
+            CommitBuilder commit = new CommitBuilder();
+            commit.setTreeId(newRootTree);
+            commit.setParentId(parent);
+            commit.setAuthor(ident);
+            commit.setCommitter(ident);
+            commit.setMessage(message);
+            ObjectId commitId = inserter.insert(commit);
+            inserter.flush();
+            return commitId;
+        } finally {
+            inserter.release();
+            reader.release();
+        }
+    }
+
+    public ObjectId insertBlob(final byte[] content) throws IOException {
+        ObjectInserter inserter = repository.newObjectInserter();
+        try {
+            ObjectId blobId = inserter.insert(Constants.OBJ_BLOB, content);
+            inserter.flush();
+            return blobId;
+        } finally {
+            inserter.release();
+        }
+    }
+
+    private static ObjectId findTree(final ObjectReader reader, final String path, final AnyObjectId tree)
+            throws IOException {
+        TreeWalk treeWalk = TreeWalk.forPath(reader, path, tree);
+        if (treeWalk == null) {
+            return null;
+        }
+        try {
+            return FileMode.TREE.equals(treeWalk.getRawMode(0)) ? treeWalk.getObjectId(0) : null;
+        } finally {
+            treeWalk.release();
+        }
+    }
+
+    /**
+     * Writes a copy of given tree (or a new tree when it's null) with the entry added or replaced.
+     */
+    private static ObjectId putEntry(final ObjectInserter inserter, final ObjectReader reader, final AnyObjectId tree,
+            final String name, final FileMode mode, final AnyObjectId id) throws IOException {
+        TreeFormatter formatter = new TreeFormatter();
+        boolean added = false;
+        if (tree != null) {
+            for (CanonicalTreeParser parser = new CanonicalTreeParser(null, reader, tree); !parser.eof(); parser.next(1)) {
+                String entryName = parser.getEntryPathString();
+                if (entryName.equals(name)) {
+                    continue;
+                }
+                FileMode entryMode = parser.getEntryFileMode();
+                if (!added && compareEntries(name, mode, entryName, entryMode) < 0) {
+                    formatter.append(name, mode, id);
+                    added = true;
+                }
+                formatter.append(entryName, entryMode, parser.getEntryObjectId());
+            }
+        }
+        if (!added) {
+            formatter.append(name, mode, id);
+        }
+        return inserter.insert(formatter);
+    }
+
+    // git orders tree entries by their raw names, names of subtrees are compared as if they ended with '/'
+    private static int compareEntries(final String name1, final FileMode mode1, final String name2,
+            final FileMode mode2) {
+        byte[] path1 = Constants.encode(FileMode.TREE.equals(mode1.getBits()) ? name1 + "/" : name1);
+        byte[] path2 = Constants.encode(FileMode.TREE.equals(mode2.getBits()) ? name2 + "/" : name2);
+        for (int i = 0; i < path1.length && i < path2.length; i++) {
+            int diff = (path1[i] & 0xff) - (path2[i] & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return path1.length - path2.length;
+    }
+}
@@ -0,0 +1,154 @@
+package com.infusion.relnotesgen;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.events.ListenerHandle;
+import org.eclipse.jgit.events.RefsChangedEvent;
+import org.eclipse.jgit.events.RefsChangedListener;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Index of repository tags mapping exact tag names to peeled commit ids and commit ids back to tag names.
+ * <p>
+ * Tags are listed and peeled once per repository open. The index is marked as stale whenever JGit reports a change
+ * of refs; on the next lookup only tags which ref changed (or are new) are peeled again.
+ */
+public class GitTagIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(Configuration.LOGGER_NAME);
+
+    private final Git git;
+    private final ListenerHandle refsChangedHandle;
+    private volatile boolean stale = true;
+
+    // full tag name -> id the tag ref points to (not peeled), used to detect which tags changed
+    private Map<String, ObjectId> tagRefIds = Collections.emptyMap();
+    // full and short tag name -> full tag name
+    private Map<String, String> fullTagNames = Collections.emptyMap();
+    // full tag name -> peeled commit id
+    private Map<String, ObjectId> commitsByTag = Collections.emptyMap();
+    // peeled commit id -> full tag names
+    private Map<ObjectId, SortedSet<String>> tagsByCommit = Collections.emptyMap();
+
+    public GitTagIndex(final Git git) {
+        this.git = git;
+        this.refsChangedHandle = git.getRepository().getListenerList()
+                .addRefsChangedListener(new RefsChangedListener() {
+
+                    @Override
+                    public void onRefsChanged(final RefsChangedEvent event) {
+                        stale = true;
+                    }
+                });
+    }
+
+    /**
+     * @param tagName - short ('1.0') or full ('refs/tags/1.0') tag name
+     * @return full name of the tag or null when there is no such tag
+     */
+    public synchronized String getFullTagName(final String tagName) {
+        refreshIfStale();
+        return tagName == null ? null : fullTagNames.get(tagName);
+    }
+
+    /**
+     * @param tagName - short ('1.0') or full ('refs/tags/1.0') tag name
+     * @return id of the commit the tag points to or null when there is no such tag
+     */
+    public synchronized ObjectId getCommit(final String tagName) {
+        String fullTagName = getFullTagName(tagName);
+        return fullTagName == null ? null : commitsByTag.get(fullTagName);
+    }
+
+    /**
+     * @param commit - commit id
+     * @return full names of tags pointing to the commit, empty if there are none
+     */
+    public synchronized SortedSet<String> getTags(final AnyObjectId commit) {
+        refreshIfStale();
+        SortedSet<String> tags = tagsByCommit.get(commit);
+        return Collections.unmodifiableSortedSet(tags == null ? new TreeSet<String>() : tags);
+    }
+
+    public synchronized boolean isTagged(final AnyObjectId commit) {
+        refreshIfStale();
+        return tagsByCommit.containsKey(commit);
+    }
+
+    private void refreshIfStale() {
+        if (!stale) {
+            return;
+        }
+        final Iterable<Ref> tags;
+        try {
+            tags = git.tagList().call();
+        } catch (GitAPIException e) {
+            throw new RuntimeException(e);
+        }
+        // listing tags rescans refs and may report changes it has just picked up, those are already in the list
+        stale = false;
+
+        Repository repository = git.getRepository();
+        Map<String, ObjectId> newTagRefIds = new HashMap<>();
+        Map<String, String> newFullTagNames = new HashMap<>();
+        Map<String, ObjectId> newCommitsByTag = new HashMap<>();
+        Map<ObjectId, SortedSet<String>> newTagsByCommit = new HashMap<>();
+        int peeled = 0;
+
+        for (Ref tag : tags) {
+            String fullTagName = tag.getName();
+            ObjectId tagRefId = tag.getObjectId();
+            newTagRefIds.put(fullTagName, tagRefId);
+
+            ObjectId commit = commitsByTag.get(fullTagName);
+            if (commit == null || !tagRefId.equals(tagRefIds.get(fullTagName))) {
+                commit = retrieveCommitIdFromTag(repository, tag);
+                peeled++;
+            }
+
+            newFullTagNames.put(fullTagName, fullTagName);
+            newFullTagNames.put(Repository.shortenRefName(fullTagName), fullTagName);
+            newCommitsByTag.put(fullTagName, commit);
+
+            SortedSet<String> commitTags = newTagsByCommit.get(commit);
+            if (commitTags == null) {
+                commitTags = new TreeSet<>();
+                newTagsByCommit.put(commit, commitTags);
+            }
+            commitTags.add(fullTagName);
+        }
+
+        tagRefIds = newTagRefIds;
+        fullTagNames = newFullTagNames;
+        commitsByTag = newCommitsByTag;
+        tagsByCommit = newTagsByCommit;
+        logger.info("Indexed {} tags ({} peeled) pointing to {} commits.", newCommitsByTag.size(), peeled,
+                newTagsByCommit.size());
+    }
+
+    private static ObjectId retrieveCommitIdFromTag(final Repository repository, final Ref tag) {
+        Ref peeledTag = repository.peel(tag);
+        if (peeledTag.getPeeledObjectId() == null) {
+            //http://dev.eclipse.org/mhonarc/lists/jgit-dev/msg01706.html
+            //when peeled tag is null it means this is 'lighweight' tag and object id points to commit straight forward
+            return peeledTag.getObjectId().copy();
+        } else {
+            return peeledTag.getPeeledObjectId().copy();
+        }
+    }
+
+    public void close() {
+        refsChangedHandle.remove();
+    }
+}
@@ -6,76 +6,97 @@ import com.atlassian.jira.rest.client.api.JiraRestClientFactory;
 import com.atlassian.jira.rest.client.api.RestClientException;
 import com.atlassian.jira.rest.client.api.SearchRestClient;
 import com.atlassian.jira.rest.client.api.domain.Issue;
-import com.atlassian.jira.rest.client.api.domain.SearchResult;
 import com.atlassian.jira.rest.client.api.domain.util.ErrorCollection;
 import com.atlassian.jira.rest.client.auth.BasicHttpAuthenticationHandler;
 import com.atlassian.jira.rest.client.internal.async.AsynchronousJiraRestClientFactory;
-import com.google.common.base.Function;
 import com.google.common.base.Joiner;
-import com.google.common.base.Predicate;
 import com.google.common.collect.*;
+import com.infusion.relnotesgen.util.JiraFieldResolver;
 import com.infusion.relnotesgen.util.JiraIssueSearchType;
 
+import org.apache.commons.lang3.StringUtils;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
+import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class JiraConnectorImpl implements JiraConnector {
 	private final static Logger logger = LoggerFactory.getLogger(Configuration.LOGGER_NAME);
+	/**
+	 * Size of the connection pool of the JIRA client (per host and in total). JRJC 3.0 builds its HTTP client with
+	 * default options, and they can't be changed without reimplementing the client's internal event and application
+	 * properties stubs, so pool size and keep-alive aren't configurable.
+	 */
+	static final int CLIENT_MAX_CONNECTIONS = 20;
     private final Configuration configuration;
+    private final JiraFieldProjection fieldProjection;
+    private final JiraRequestLimiter requestLimiter;
+    private JiraFieldResolver fieldResolver;
+    private ImmutableSet<String> searchFields;
+    private boolean searchFieldsResolved;
+    private JiraRestClient jiraRestClient;
+    private JiraIssueCache issueCache;
 
     public JiraConnectorImpl(final Configuration configuration) {
         this.configuration = configuration;
+        this.fieldProjection = new JiraFieldProjection(configuration);
+        int parallelism = configuration.getJiraSearchParallelism();
+        if (parallelism > CLIENT_MAX_CONNECTIONS) {
+            logger.warn("JIRA client keeps at most {} connections, lowering {} from {}.", CLIENT_MAX_CONNECTIONS,
+                    Configuration.JIRA_SEARCH_PARALLELISM, parallelism);
+            parallelism = CLIENT_MAX_CONNECTIONS;
+        }
+        this.requestLimiter = new JiraRequestLimiter(parallelism, configuration.getJiraSearchMaxRetries(),
+                configuration.getJiraSearchRequestBudget());
     }
 
     @Override
 	public ImmutableMap<String, Issue> getIssuesIncludeParents(final ImmutableSet<String> issueIds, final Map<JiraIssueSearchType, String> errors) {
-        try(JiraRestClient jiraRestClient = createJiraRestClient()) {
-            return getIssuesIncludeParentsInternal(jiraRestClient, issueIds, errors);
-        } catch (IOException e) {
-            throw new RuntimeException("Exception while contacting JIRA", e);
-        }
+        return getIssuesIncludeParentsInternal(getJiraRestClient(), issueIds, errors);
     }
 
 	@Override
 	public ImmutableMap<String, Issue> getIssuesByFixVersions(final ImmutableSet<String> fixVersions, final Map<JiraIssueSearchType, String> errors) {
-        try(JiraRestClient jiraRestClient = createJiraRestClient()) {
-            return getIssuesByFixVersionsInternal(jiraRestClient, fixVersions, errors);
-        } catch (IOException e) {
-            throw new RuntimeException("Exception while contacting JIRA", e);
-        }
+        return getIssuesByFixVersionsInternal(getJiraRestClient(), fixVersions, errors);
 	}
 
 	@Override
 	public ImmutableMap<String, Issue> getKnownIssuesByJql(final String jqlQuery, final Map<JiraIssueSearchType, String> errors) {
-        try(JiraRestClient jiraRestClient = createJiraRestClient()) {
-            return getKnownIssuesByJqlInternal(jiraRestClient, jqlQuery, errors);
-        } catch (IOException e) {
-            throw new RuntimeException("Exception while contacting JIRA", e);
-        }
+        return getKnownIssuesByJqlInternal(getJiraRestClient(), jqlQuery, errors);
 	}
 
     private ImmutableMap<String, Issue> getIssuesIncludeParentsInternal(final JiraRestClient jiraRestClient, 
     		final ImmutableSet<String> issueIds, final Map<JiraIssueSearchType, String> errors) {
-        SearchRestClient searchClient = jiraRestClient.getSearchClient();
-
-        String searchQuery = getSearchJQL(issueIds);
-
         logger.info("Getting issues for keys: {}", issueIds);
-        List<Issue> issues = retrieveIssuesFromJiraClient(searchQuery, jiraRestClient, errors, JiraIssueSearchType.GENERIC);
-
-        addParentIssues(issueIds, searchClient, issues);
-        logger.info("Fetching issues from JIRA completed. {} issues fetched.", issues.size());
+        ParentIssuePipeline parentIssues = new ParentIssuePipeline(issueIds, jiraRestClient);
+        try {
+            List<Issue> issues = retrieveIssuesByKeys(issueIds, jiraRestClient, errors, JiraIssueSearchType.GENERIC,
+                    parentIssues);
+            issues.addAll(parentIssues.finish(errors));
+            logger.info("Fetching issues from JIRA completed. {} issues fetched.", issues.size());
 
-        return convertIssueListToMap(issues);
+            return convertIssueListToMap(issues);
+        } finally {
+            parentIssues.close();
+        }
     }
 
 	private ImmutableMap<String, Issue> getIssuesByFixVersionsInternal(final JiraRestClient jiraRestClient,
@@ -94,6 +115,17 @@ public class JiraConnectorImpl implements JiraConnector {
         return MessageFormat.format("key in ({0})", Joiner.on(",").join(issueIds));
     }
 
+    /**
+     * Splits keys into chunks of jira.search.chunkSize, so no query hits JQL or URL length limits
+     */
+    private List<String> getSearchJQLs(final Iterable<String> issueIds) {
+        List<String> searchQueries = new ArrayList<String>();
+        for (List<String> chunk : Iterables.partition(issueIds, configuration.getJiraSearchChunkSize())) {
+            searchQueries.add(getSearchJQL(chunk));
+        }
+        return searchQueries;
+    }
+
 	private String getFixVersionSearchJQL(final ImmutableSet<String> fixVersions) {
         if (fixVersions==null || fixVersions.isEmpty()) {
         	return null;
@@ -101,6 +133,76 @@ public class JiraConnectorImpl implements JiraConnector {
         return MessageFormat.format("fixVersion in (\"{0}\")", Joiner.on("\",\"").join(fixVersions));
 	}
 
+	private PaginatedJiraSearch createSearch(final SearchRestClient searchClient) {
+        return new PaginatedJiraSearch(searchClient, configuration.getJiraSearchPageSize(), requestLimiter);
+	}
+
+	@Override
+	public JiraFieldResolver getFieldResolver() {
+		return getFieldResolver(getJiraRestClient());
+	}
+
+	/**
+	 * Lists fields of the instance once per connector
+	 * @return resolver of field names, {@link JiraFieldResolver#BY_NAME} when JIRA couldn't list its fields
+	 */
+	private synchronized JiraFieldResolver getFieldResolver(final JiraRestClient jiraRestClient) {
+		if (fieldResolver == null) {
+			try {
+				fieldResolver = JiraFieldResolver.of(jiraRestClient.getMetadataClient().getFields().claim());
+			} catch (RestClientException e) {
+				logger.warn("Couldn't list JIRA fields, fields will be matched by name.", e);
+				fieldResolver = JiraFieldResolver.BY_NAME;
+			}
+		}
+		return fieldResolver;
+	}
+
+	/**
+	 * Resolves names of required fields to ids once per run
+	 * @return ids of fields returned by searches, null (all fields) when JIRA couldn't list its fields
+	 */
+	private synchronized Set<String> getSearchFields(final JiraRestClient jiraRestClient) {
+		if (!searchFieldsResolved) {
+			JiraFieldResolver resolver = getFieldResolver(jiraRestClient);
+			if (!resolver.getIdsByName().isEmpty()) {
+				searchFields = fieldProjection.resolve(resolver.getIdsByName());
+				logger.info("Requesting fields {} in JIRA searches.", searchFields);
+			} else {
+				logger.warn("Searches will return all fields.");
+				searchFields = null;
+			}
+			searchFieldsResolved = true;
+		}
+		return searchFields;
+	}
+
+	/**
+	 * @return client shared by all queries, its HTTP connections are kept alive and reused until {@link #close()}
+	 */
+	private synchronized JiraRestClient getJiraRestClient() {
+		if (jiraRestClient == null) {
+			logger.info("Connecting to JIRA {}", configuration.getJiraUrl());
+			jiraRestClient = createJiraRestClient();
+		}
+		return jiraRestClient;
+	}
+
+	/**
+	 * Releases connections and threads of the shared client, a later query connects again with a new request budget
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		requestLimiter.reset();
+		if (jiraRestClient != null) {
+			try {
+				jiraRestClient.close();
+			} finally {
+				jiraRestClient = null;
+			}
+		}
+	}
+
 	private JiraRestClient createJiraRestClient() {
         JiraRestClientFactory factory = new AsynchronousJiraRestClientFactory();
 
@@ -115,15 +217,28 @@ public class JiraConnectorImpl implements JiraConnector {
 
 	private List<Issue> retrieveIssuesFromJiraClient(final String searchQuery, final JiraRestClient jiraRestClient, 
 			final Map<JiraIssueSearchType, String> errors, final JiraIssueSearchType searchType) {
+		List<String> searchQueries = new ArrayList<String>();
+		if (searchQuery!=null && !searchQuery.isEmpty()) {
+			searchQueries.add(searchQuery);
+		}
+		return retrieveIssuesFromJiraClient(searchQueries, jiraRestClient, errors, searchType, null);
+	}
+
+	private List<Issue> retrieveIssuesFromJiraClient(final List<String> searchQueries, final JiraRestClient jiraRestClient, 
+			final Map<JiraIssueSearchType, String> errors, final JiraIssueSearchType searchType,
+			final PaginatedJiraSearch.PageListener listener) {
+		return retrieveIssuesFromJiraClient(searchQueries, getSearchFields(jiraRestClient), jiraRestClient, errors,
+				searchType, listener);
+	}
+
+	private List<Issue> retrieveIssuesFromJiraClient(final List<String> searchQueries, final Set<String> fields,
+			final JiraRestClient jiraRestClient, final Map<JiraIssueSearchType, String> errors,
+			final JiraIssueSearchType searchType, final PaginatedJiraSearch.PageListener listener) {
         SearchRestClient searchClient = jiraRestClient.getSearchClient();
 		List<Issue> issues = new ArrayList<Issue>();
-		if (searchQuery!=null && !searchQuery.isEmpty()) {
+		if (!searchQueries.isEmpty()) {
 			try {
-				SearchResult searchResult = searchClient.searchJql(searchQuery, 500, 0, null).claim();
-				issues = Lists.newArrayList(searchResult.getIssues());			
-				if(issues.size() < searchResult.getTotal()) {
-				    logger.warn("Reached limit of max results {} - not all JIRA items returned - {} out of {}!!", searchResult.getMaxResults(), issues.size(), searchResult.getTotal());
-				}
+				issues = createSearch(searchClient).search(searchQueries, fields, listener);
 		        logger.info("Fetching issues from JIRA completed. {} issues fetched.", issues.size());
 			} catch (RestClientException e) {
 				StringBuilder errorSb = new StringBuilder();
@@ -134,61 +249,191 @@ public class JiraConnectorImpl implements JiraConnector {
 				}
 				errors.put(searchType, errorSb.toString());
 				logger.warn(e.getMessage());
+			} catch (JiraRequestBudgetExceededException e) {
+				// issues found so far are dropped like those of any failed search, the report shows the error
+				errors.put(searchType, e.getMessage());
+				logger.warn(e.getMessage());
 			}
 		}
 		return issues;
 	}
 
+	/**
+	 * Fetches issues of given keys, issues kept in jira.issue.cache are only fetched again when JIRA reports another
+	 * update time for them
+	 * @param listener - notified of every page fetched and of cached issues once they're known to be current, may be
+	 *                 null
+	 */
+	private List<Issue> retrieveIssuesByKeys(final Set<String> issueIds, final JiraRestClient jiraRestClient,
+			final Map<JiraIssueSearchType, String> errors, final JiraIssueSearchType searchType,
+			final PaginatedJiraSearch.PageListener listener) {
+		JiraIssueCache issueCache = getIssueCache(jiraRestClient);
+		if (issueCache == null) {
+			return retrieveIssuesFromJiraClient(getSearchJQLs(issueIds), jiraRestClient, errors, searchType, listener);
+		}
+
+		Map<String, Issue> cachedIssues = issueCache.get(issueIds);
+		Map<String, Issue> currentIssues = getCurrentIssues(cachedIssues, issueCache, jiraRestClient, errors,
+				searchType);
+		if (listener != null) {
+			listener.pageReceived(currentIssues.values());
+		}
+
+		Map<String, Issue> issues = new LinkedHashMap<String, Issue>(currentIssues);
+		Map<JiraIssueSearchType, String> searchErrors = new HashMap<JiraIssueSearchType, String>();
+		List<Issue> fetchedIssues = retrieveIssuesFromJiraClient(
+				getSearchJQLs(Sets.difference(issueIds, currentIssues.keySet())), jiraRestClient, searchErrors,
+				searchType, listener);
+		errors.putAll(searchErrors);
+		for (Issue issue : fetchedIssues) {
+			issues.put(issue.getKey(), issue);
+			issueCache.put(issue);
+		}
+		logger.info("{} issues served from cache, {} issues fetched from JIRA.", currentIssues.size(),
+				fetchedIssues.size());
+		return new ArrayList<Issue>(issues.values());
+	}
+
+	/**
+	 * Asks JIRA for the update times of cached issues, reading only the fields the client can't parse an issue without.
+	 * Issues JIRA doesn't return under their key any more (deleted, moved or no longer readable) are removed from the
+	 * cache.
+	 * @return cached issues JIRA reports the same update time for, all cached issues when JIRA couldn't be asked
+	 */
+	private Map<String, Issue> getCurrentIssues(final Map<String, Issue> cachedIssues, final JiraIssueCache issueCache,
+			final JiraRestClient jiraRestClient, final Map<JiraIssueSearchType, String> errors,
+			final JiraIssueSearchType searchType) {
+		if (cachedIssues.isEmpty()) {
+			return cachedIssues;
+		}
+		Map<JiraIssueSearchType, String> searchErrors = new HashMap<JiraIssueSearchType, String>();
+		List<Issue> issues = retrieveIssuesFromJiraClient(getSearchJQLs(cachedIssues.keySet()),
+				JiraFieldProjection.PARSER_FIELDS, jiraRestClient, searchErrors, searchType, null);
+		if (!searchErrors.isEmpty()) {
+			errors.putAll(searchErrors);
+			return cachedIssues;
+		}
+
+		Map<String, DateTime> updateDates = new HashMap<String, DateTime>();
+		for (Issue issue : issues) {
+			updateDates.put(issue.getKey(), issue.getUpdateDate());
+		}
+		Map<String, Issue> currentIssues = new LinkedHashMap<String, Issue>();
+		List<String> goneKeys = new ArrayList<String>();
+		for (Map.Entry<String, Issue> cachedIssue : cachedIssues.entrySet()) {
+			DateTime updateDate = updateDates.get(cachedIssue.getKey());
+			DateTime cachedUpdateDate = cachedIssue.getValue().getUpdateDate();
+			if (updateDate == null) {
+				goneKeys.add(cachedIssue.getKey());
+			} else if (cachedUpdateDate != null && cachedUpdateDate.getMillis() == updateDate.getMillis()) {
+				currentIssues.put(cachedIssue.getKey(), cachedIssue.getValue());
+			}
+		}
+		issueCache.remove(goneKeys);
+		return currentIssues;
+	}
+
+	private synchronized JiraIssueCache getIssueCache(final JiraRestClient jiraRestClient) {
+		if (issueCache == null && StringUtils.isNotBlank(configuration.getJiraIssueCache())) {
+			issueCache = new JiraIssueCache(new File(configuration.getJiraIssueCache()),
+					configuration.getJiraUrl() + "|" + getSearchFields(jiraRestClient));
+		}
+		return issueCache;
+	}
+
 	private ImmutableMap<String, Issue> convertIssueListToMap(final List<Issue> issues) {
-		return Maps.uniqueIndex(issues, new Function<Issue, String>() {
-            @Override
-            public String apply(Issue issue) {
-                return issue.getKey();
-            }
-        });
+		// separate chunks may return the same issue, e.g. when both its current and old (moved) key were requested
+		Map<String, Issue> issuesByKey = new LinkedHashMap<String, Issue>();
+		for (Issue issue : issues) {
+			issuesByKey.put(issue.getKey(), issue);
+		}
+		return ImmutableMap.copyOf(issuesByKey);
 	}
 
-	private void addParentIssues(final ImmutableSet<String> issueIds, final SearchRestClient searchClient,
-			final List<Issue> issues) {
-		ImmutableSet<String> parentKeysToFetch = retrieveParentKeysToFetch(issueIds, issues);
+	/**
+	 * Queues parent keys of subtasks as pages of a key lookup arrive, parents are fetched in chunks of
+	 * jira.search.chunkSize one after another while the lookup goes on
+	 */
+	private class ParentIssuePipeline implements PaginatedJiraSearch.PageListener {
 
-        if (!parentKeysToFetch.isEmpty()) {
-            logger.info("Fetching subtasks' parents which haven't been fetched already: {}", parentKeysToFetch);
+		private final Set<String> issueIds;
+		private final JiraRestClient jiraRestClient;
+		private final Map<JiraIssueSearchType, String> errors = new HashMap<JiraIssueSearchType, String>();
+		private final Set<String> queuedKeys = new HashSet<String>();
+		private final List<String> pendingKeys = new ArrayList<String>();
+		private final List<Future<List<Issue>>> fetches = new ArrayList<Future<List<Issue>>>();
+		private final ExecutorService executor = Executors.newSingleThreadExecutor();
 
-            String parentSearchQuery = getSearchJQL(parentKeysToFetch);
-            SearchResult parentSearchResult = searchClient.searchJql(parentSearchQuery).claim();
-            Iterables.addAll(issues, parentSearchResult.getIssues());
-        }
+		ParentIssuePipeline(final Set<String> issueIds, final JiraRestClient jiraRestClient) {
+			this.issueIds = issueIds;
+			this.jiraRestClient = jiraRestClient;
+		}
+
+		@Override
+		public synchronized void pageReceived(final Iterable<Issue> issues) {
+			for (Issue issue : issues) {
+				if (issue.getIssueType().isSubtask()) {
+					String parentKey = getParentKey(issue);
+					// Eliminate duplicates that have already been fetched or queued
+					if (!issueIds.contains(parentKey) && queuedKeys.add(parentKey)) {
+						pendingKeys.add(parentKey);
+					}
+				}
+			}
+			if (pendingKeys.size() >= configuration.getJiraSearchChunkSize()) {
+				fetchPendingKeys();
+			}
+		}
+
+		/**
+		 * @return parents of all subtasks seen, fetch errors are added to given errors
+		 */
+		List<Issue> finish(final Map<JiraIssueSearchType, String> errors) {
+			synchronized (this) {
+				if (!pendingKeys.isEmpty()) {
+					fetchPendingKeys();
+				}
+			}
+			List<Issue> parents = new ArrayList<Issue>();
+			try {
+				for (Future<List<Issue>> fetch : fetches) {
+					parents.addAll(fetch.get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException("Exception while contacting JIRA", e.getCause());
+			}
+			errors.putAll(this.errors);
+			return parents;
+		}
+
+		void close() {
+			executor.shutdownNow();
+		}
+
+		private void fetchPendingKeys() {
+			final ImmutableSet<String> parentKeys = ImmutableSet.copyOf(pendingKeys);
+			pendingKeys.clear();
+			logger.info("Fetching subtasks' parents which haven't been fetched already: {}", parentKeys);
+			fetches.add(executor.submit(new Callable<List<Issue>>() {
+
+				@Override
+				public List<Issue> call() {
+					// runs on the single pipeline thread only, nothing else writes these errors meanwhile
+					return retrieveIssuesByKeys(parentKeys, jiraRestClient, errors, JiraIssueSearchType.GENERIC, null);
+				}
+			}));
+		}
 	}
 
-	private ImmutableSet<String> retrieveParentKeysToFetch(final ImmutableSet<String> issueIds, final List<Issue> issues) {
-		ImmutableSet<String> parentKeysToFetch = FluentIterable
-                .from(issues)
-                .filter(new Predicate<Issue>() {
-                    @Override
-                    public boolean apply(final Issue issue) {
-                        return issue.getIssueType().isSubtask();
-                    }
-                })
-                .transform(new Function<Issue, String>() {
-                    @Override
-                    public String apply(final Issue issue) {
-                        try {
-                            return ((JSONObject) issue.getFieldByName("Parent").getValue()).get("key").toString();
-                        } catch (JSONException e) {
-                            throw new RuntimeException("JSON response from JIRA malformed - no parent key in subtask", e);
-                        }
-                    }
-                })
-                // Eliminate duplicates that have already been fetched
-                .filter(new Predicate<String>() {
-                    @Override
-                    public boolean apply(String parentKey) {
-                        return !issueIds.contains(parentKey);
-                    }
-                })
-                .toSet();
-		return parentKeysToFetch;
+	static String getParentKey(final Issue subtask) {
+        try {
+            return ((JSONObject) subtask.getFieldByName("Parent").getValue()).get("key").toString();
+        } catch (JSONException e) {
+            throw new RuntimeException("JSON response from JIRA malformed - no parent key in subtask", e);
+        }
 	}
 
 }
@@ -4,6 +4,7 @@ import com.atlassian.jira.rest.client.api.domain.Issue;
 
 import com.google.common.collect.*;
 import com.infusion.relnotesgen.util.FileUtils;
+import com.infusion.relnotesgen.util.JiraFieldResolver;
 import com.infusion.relnotesgen.util.JiraIssueSearchType;
 import com.infusion.relnotesgen.util.XstreamSerializer;
 
@@ -22,6 +23,7 @@ public class JiraConnectorMock implements JiraConnector {
     private final String ISSUES_INCLUDE_PARENTS_FILE = "issuesIncludeParents.xml";
     private final String ISSUES_BY_FIX_VERSIONS_FILE = "issuesByFixVersions.xml";
     private final String KNOWN_ISSUES_BY_JQL_FILE = "knownIssuesByJql.xml";
+    private JiraConnector jiraConnector;
 
     public JiraConnectorMock(final Configuration configuration) {
         this.configuration = configuration;
@@ -39,8 +41,7 @@ public class JiraConnectorMock implements JiraConnector {
                 returnVal = serializer.deserialize(filename);
             } else {
                 // retrieve, serialize and return
-                JiraConnector jiraConnector = new JiraConnectorImpl(configuration);
-                returnVal = jiraConnector.getIssuesIncludeParents(issueIds, errors);
+                returnVal = getJiraConnector().getIssuesIncludeParents(issueIds, errors);
                 serializer.serialize(filename, (ImmutableMap<String, Issue>) returnVal);
             }
 
@@ -62,8 +63,7 @@ public class JiraConnectorMock implements JiraConnector {
                 returnVal = serializer.deserialize(filename);
             } else {
                 // retrieve, serialize and return
-                JiraConnector jiraConnector = new JiraConnectorImpl(configuration);
-                returnVal = jiraConnector.getIssuesByFixVersions(configuration.getFixVersionsSet(), errors);
+                returnVal = getJiraConnector().getIssuesByFixVersions(configuration.getFixVersionsSet(), errors);
                 serializer.serialize(filename, (ImmutableMap<String, Issue>) returnVal);
             }
 
@@ -86,8 +86,7 @@ public class JiraConnectorMock implements JiraConnector {
                 returnVal = serializer.deserialize(filename);
             } else {
                 // retrieve, serialize and return
-                JiraConnector jiraConnector = new JiraConnectorImpl(configuration);
-                returnVal = jiraConnector.getKnownIssuesByJql(configuration.getKnownIssues(), errors);
+                returnVal = getJiraConnector().getKnownIssuesByJql(configuration.getKnownIssues(), errors);
                 serializer.serialize(filename, (ImmutableMap<String, Issue>) returnVal);
             }
 
@@ -96,4 +95,26 @@ public class JiraConnectorMock implements JiraConnector {
         }
         return ImmutableMap.copyOf(returnVal);
     }
+
+    /**
+     * Serialized issues are read without JIRA, their fields are matched by name
+     */
+    @Override
+    public JiraFieldResolver getFieldResolver() {
+        return JiraFieldResolver.BY_NAME;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (jiraConnector != null) {
+            jiraConnector.close();
+        }
+    }
+
+    private synchronized JiraConnector getJiraConnector() {
+        if (jiraConnector == null) {
+            jiraConnector = new JiraConnectorImpl(configuration);
+        }
+        return jiraConnector;
+    }
 }
@@ -0,0 +1,75 @@
+package com.infusion.relnotesgen;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Works out which fields JIRA searches have to return, so issues don't come with comments, attachments and every
+ * custom field of the instance.
+ * <p>
+ * Fields are given either by id or by display name (custom fields are read by name), names are resolved to ids of the
+ * instance with {@link #resolve(Multimap)}.
+ */
+public class JiraFieldProjection {
+
+    private static final Logger logger = LoggerFactory.getLogger(Configuration.LOGGER_NAME);
+
+    /**
+     * Fields the JIRA client needs to parse an issue whenever the returned fields are limited
+     */
+    static final ImmutableSet<String> PARSER_FIELDS = ImmutableSet.of("summary", "issuetype", "created", "updated",
+            "project", "status");
+
+    private final ImmutableSet<String> fields;
+
+    public JiraFieldProjection(final Configuration configuration) {
+        this.fields = ImmutableSet.<String>builder()
+                .addAll(PARSER_FIELDS)
+                .addAll(ReleaseNotesModelFactory.ISSUE_MODEL_FIELDS)
+                .addAll(configuration.getClientFacingFilterSet())
+                .addAll(configuration.getJiraSearchFieldsSet())
+                .build();
+    }
+
+    /**
+     * @return ids or names of all required fields
+     */
+    public ImmutableSet<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * @param idsByName - ids of all fields of the JIRA instance by their display names
+     * @return ids of required fields, fields unknown to the instance are passed as they are (e.g. '*all')
+     */
+    public ImmutableSet<String> resolve(final Map<String, String> idsByName) {
+        return resolve(Multimaps.forMap(idsByName));
+    }
+
+    /**
+     * @param idsByName - ids of all fields of the JIRA instance by their display names, all fields sharing a name are
+     *                  requested
+     * @return ids of required fields, fields unknown to the instance are passed as they are (e.g. '*all')
+     */
+    public ImmutableSet<String> resolve(final Multimap<String, String> idsByName) {
+        Set<String> ids = new TreeSet<>();
+        for (String field : fields) {
+            if (idsByName.containsKey(field)) {
+                ids.addAll(idsByName.get(field));
+            } else {
+                if (!idsByName.containsValue(field)) {
+                    logger.debug("Field '{}' not found in JIRA, requesting it as it is.", field);
+                }
+                ids.add(field);
+            }
+        }
+        return ImmutableSet.copyOf(ids);
+    }
+}
@@ -0,0 +1,107 @@
+package com.infusion.relnotesgen;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.thoughtworks.xstream.XStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * On-disk store of JIRA issues keyed by issue key.
+ * <p>
+ * Every issue is stored in its own file. Cached issues are never served as they are: callers check their update time
+ * against JIRA first and {@link #remove(Iterable) remove} the ones JIRA no longer returns. Issues are kept per JIRA
+ * instance and set of requested fields, as an issue fetched with other fields can't be served.
+ */
+public class JiraIssueCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(Configuration.LOGGER_NAME);
+    private static final String EXTENSION = ".xml";
+    private static final Pattern KEY_PATTERN = Pattern.compile("[\\w-]+");
+
+    private final File directory;
+    private final XStream xstream = new XStream();
+
+    /**
+     * @param directory - directory holding the cache, created when it doesn't exist
+     * @param scope     - text identifying the JIRA instance and the requested fields
+     */
+    public JiraIssueCache(final File directory, final String scope) {
+        // the directory is configurable, only types issues of the JIRA client are made of may be read from it: domain
+        // classes, JSON values of custom fields, dates and Guava collections and views (e.g. split expandos)
+        XStream.setupDefaultSecurity(xstream);
+        xstream.allowTypes(new Class[] {String.class, URI.class});
+        xstream.allowTypesByWildcard(new String[] {"com.atlassian.jira.rest.client.api.domain.**",
+                "org.codehaus.jettison.json.**", "org.joda.time.**", "com.google.common.base.*",
+                "com.google.common.collect.*"});
+        this.directory = new File(directory, Hashing.sha1().hashString(scope, Charsets.UTF_8).toString());
+        if (!this.directory.exists() && !this.directory.mkdirs()) {
+            throw new RuntimeException("Couldn't create issue cache directory " + this.directory.getAbsolutePath());
+        }
+    }
+
+    /**
+     * @return cached issues of given keys
+     */
+    public Map<String, Issue> get(final Iterable<String> keys) {
+        Map<String, Issue> issues = new LinkedHashMap<>();
+        for (String key : keys) {
+            File file = fileOf(key);
+            if (file == null || !file.isFile()) {
+                continue;
+            }
+            try (InputStream input = Files.newInputStream(file.toPath())) {
+                issues.put(key, (Issue) xstream.fromXML(input));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Couldn't read cached issue from {}, ignoring it.", file.getAbsolutePath(), e);
+            }
+        }
+        return issues;
+    }
+
+    public void put(final Issue issue) {
+        File file = fileOf(issue.getKey());
+        if (file == null) {
+            return;
+        }
+        try {
+            File temp = File.createTempFile("issue", ".tmp", directory);
+            try (OutputStream output = Files.newOutputStream(temp.toPath())) {
+                xstream.toXML(issue, output);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Couldn't cache issue in {}.", file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Drops given issues, e.g. deleted ones
+     */
+    public void remove(final Iterable<String> keys) {
+        for (String key : keys) {
+            File file = fileOf(key);
+            if (file != null && file.isFile() && !file.delete()) {
+                logger.warn("Couldn't remove cached issue {}.", file.getAbsolutePath());
+            }
+        }
+    }
+
+    private File fileOf(final String key) {
+        // keys come from commit messages, anything not looking like a key is never cached
+        return KEY_PATTERN.matcher(key).matches() ? new File(directory, key + EXTENSION) : null;
+    }
+}
@@ -0,0 +1,168 @@
+package com.infusion.relnotesgen;
+
+import com.atlassian.jira.rest.client.api.domain.BasicPriority;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.IssueType;
+import com.atlassian.jira.rest.client.api.domain.Status;
+import com.atlassian.jira.rest.client.api.domain.Version;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Compact immutable copy of the attributes of a JIRA issue the report reads, the model keeps it instead of the whole
+ * {@link Issue} with all its fields. Names of types, statuses and priorities, labels and fix versions are shared by all
+ * issues using them.
+ * <p>
+ * Status and fix versions are also kept normalised the way the configuration is matched against them, so validating an
+ * issue needs no string operations.
+ */
+public final class JiraIssueRecord {
+
+    private static final Interner<Named> NAMES = Interners.newWeakInterner();
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+    private final String key;
+    private final URI self;
+    private final String summary;
+    private final Named issueType;
+    private final Named status;
+    private final String statusKey;
+    private final Named priority;
+    private final ImmutableSet<String> labels;
+    private final ImmutableList<String> fixVersions;
+    private final ImmutableList<String> fixVersionKeys;
+
+    private JiraIssueRecord(final Issue issue) {
+        this.key = issue.getKey();
+        this.self = issue.getSelf();
+        this.summary = issue.getSummary();
+        IssueType issueType = issue.getIssueType();
+        this.issueType = issueType != null ? Named.of(issueType.getName()) : null;
+        Status status = issue.getStatus();
+        this.status = status != null ? Named.of(status.getName()) : null;
+        this.statusKey = status != null && status.getName() != null
+                ? STRINGS.intern(status.getName().trim().toLowerCase(Locale.ROOT)) : null;
+        BasicPriority priority = issue.getPriority();
+        this.priority = priority != null ? Named.of(priority.getName()) : null;
+
+        ImmutableSet.Builder<String> labels = ImmutableSet.builder();
+        if (issue.getLabels() != null) {
+            for (String label : issue.getLabels()) {
+                labels.add(STRINGS.intern(label));
+            }
+        }
+        this.labels = labels.build();
+        ImmutableList.Builder<String> fixVersions = ImmutableList.builder();
+        ImmutableList.Builder<String> fixVersionKeys = ImmutableList.builder();
+        if (issue.getFixVersions() != null) {
+            for (Version version : issue.getFixVersions()) {
+                String name = STRINGS.intern(version.getName());
+                fixVersions.add(name);
+                fixVersionKeys.add(STRINGS.intern(name.trim()));
+            }
+        }
+        this.fixVersions = fixVersions.build();
+        this.fixVersionKeys = fixVersionKeys.build();
+    }
+
+    /**
+     * @return record of given issue, null for null issue
+     */
+    public static JiraIssueRecord of(final Issue issue) {
+        return issue != null ? new JiraIssueRecord(issue) : null;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public URI getSelf() {
+        return self;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public Named getIssueType() {
+        return issueType;
+    }
+
+    public Named getStatus() {
+        return status;
+    }
+
+    /**
+     * @return trimmed, lower cased name of the status, null when the issue has none
+     */
+    public String getStatusKey() {
+        return statusKey;
+    }
+
+    public Named getPriority() {
+        return priority;
+    }
+
+    public ImmutableSet<String> getLabels() {
+        return labels;
+    }
+
+    /**
+     * @return names of fix versions
+     */
+    public ImmutableList<String> getFixVersions() {
+        return fixVersions;
+    }
+
+    /**
+     * @return trimmed names of fix versions
+     */
+    public ImmutableList<String> getFixVersionKeys() {
+        return fixVersionKeys;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    /**
+     * Name of a type, status or priority, templates read it as e.g. {@code issue.issue.priority.name}
+     */
+    public static final class Named {
+
+        private final String name;
+
+        private Named(final String name) {
+            this.name = name;
+        }
+
+        static Named of(final String name) {
+            return name != null ? NAMES.intern(new Named(name)) : null;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Named && name.equals(((Named) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
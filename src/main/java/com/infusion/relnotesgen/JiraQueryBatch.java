@@ -0,0 +1,100 @@
+package com.infusion.relnotesgen;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.infusion.relnotesgen.util.JiraIssueSearchType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sends the fix version, issue key and known issue queries of a report at once, each on its own thread, so JIRA time
+ * is the time of the slowest query rather than their sum. Results are joined when they're read.
+ */
+public class JiraQueryBatch {
+
+    private final Future<QueryResult> issuesByFixVersions;
+    private final Future<QueryResult> issuesIncludeParents;
+    private final Future<QueryResult> knownIssues;
+
+    public JiraQueryBatch(final JiraConnector jiraConnector, final ImmutableSet<String> fixVersions,
+            final ImmutableSet<String> issueIds, final String knownIssuesJql) {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            issuesByFixVersions = executor.submit(new Query() {
+
+                @Override
+                ImmutableMap<String, Issue> query(final Map<JiraIssueSearchType, String> errors) {
+                    return jiraConnector.getIssuesByFixVersions(fixVersions, errors);
+                }
+            });
+            issuesIncludeParents = executor.submit(new Query() {
+
+                @Override
+                ImmutableMap<String, Issue> query(final Map<JiraIssueSearchType, String> errors) {
+                    return jiraConnector.getIssuesIncludeParents(issueIds, errors);
+                }
+            });
+            knownIssues = executor.submit(new Query() {
+
+                @Override
+                ImmutableMap<String, Issue> query(final Map<JiraIssueSearchType, String> errors) {
+                    return jiraConnector.getKnownIssuesByJql(knownIssuesJql, errors);
+                }
+            });
+        } finally {
+            // submitted queries still run, threads end with them
+            executor.shutdown();
+        }
+    }
+
+    public ImmutableMap<String, Issue> getIssuesByFixVersions(final Map<JiraIssueSearchType, String> errors) {
+        return join(issuesByFixVersions, errors);
+    }
+
+    public ImmutableMap<String, Issue> getIssuesIncludeParents(final Map<JiraIssueSearchType, String> errors) {
+        return join(issuesIncludeParents, errors);
+    }
+
+    public ImmutableMap<String, Issue> getKnownIssues(final Map<JiraIssueSearchType, String> errors) {
+        return join(knownIssues, errors);
+    }
+
+    private static ImmutableMap<String, Issue> join(final Future<QueryResult> query,
+            final Map<JiraIssueSearchType, String> errors) {
+        try {
+            QueryResult result = query.get();
+            errors.putAll(result.errors);
+            return result.issues;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Exception while contacting JIRA", e.getCause());
+        }
+    }
+
+    private abstract static class Query implements Callable<QueryResult> {
+
+        abstract ImmutableMap<String, Issue> query(Map<JiraIssueSearchType, String> errors);
+
+        @Override
+        public QueryResult call() {
+            QueryResult result = new QueryResult();
+            result.issues = query(result.errors);
+            return result;
+        }
+    }
+
+    private static class QueryResult {
+
+        private ImmutableMap<String, Issue> issues;
+        private final Map<JiraIssueSearchType, String> errors = new HashMap<>();
+    }
+}
@@ -0,0 +1,15 @@
+package com.infusion.relnotesgen;
+
+/**
+ * Thrown by {@link JiraRequestLimiter} when a request would exceed the request budget of the run, the search it was
+ * sent for fails and is reported like any other failed JIRA search
+ */
+public class JiraRequestBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JiraRequestBudgetExceededException(final int requestBudget) {
+        super("Budget of " + requestBudget + " JIRA requests exhausted, see "
+                + Configuration.JIRA_SEARCH_REQUESTBUDGET);
+    }
+}
@@ -0,0 +1,138 @@
+package com.infusion.relnotesgen;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.google.common.collect.ImmutableSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+/**
+ * Limits JIRA requests of a run, shared by all searches of a connector.
+ * <p>
+ * Number of requests in flight follows AIMD: the window grows by one request per window of successful requests up to
+ * {@code maxConcurrency} and is halved whenever JIRA answers it's overloaded. Such requests are retried after an
+ * exponentially growing, jittered delay. Every request sent, retries included, is taken from the request budget, a
+ * request beyond it fails with {@link JiraRequestBudgetExceededException}.
+ */
+public class JiraRequestLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(Configuration.LOGGER_NAME);
+    private static final ImmutableSet<Integer> OVERLOADED_STATUSES = ImmutableSet.of(429, 502, 503, 504);
+    private static final long BASE_DELAY_MILLIS = 500;
+    private static final long MAX_DELAY_MILLIS = 30000;
+
+    private final int maxConcurrency;
+    private final int maxRetries;
+    private final int requestBudget;
+    private final Random random = new Random();
+    private double window;
+    private int inFlight;
+    private int sent;
+
+    /**
+     * @param maxConcurrency - maximal number of requests in flight
+     * @param maxRetries     - maximal number of retries of a request JIRA refused as overloaded
+     * @param requestBudget  - maximal number of requests sent till {@link #reset()}, 0 for no limit
+     */
+    public JiraRequestLimiter(final int maxConcurrency, final int maxRetries, final int requestBudget) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.requestBudget = Math.max(0, requestBudget);
+        this.window = this.maxConcurrency;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Waits till the window lets another request be sent. Must not be called while holding other requests, see
+     * {@link #tryAcquire()}.
+     */
+    public synchronized void acquire() {
+        while (inFlight >= (int) window) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+        spend();
+        inFlight++;
+    }
+
+    /**
+     * @return true when a request may be sent now
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) window) {
+            return false;
+        }
+        spend();
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void succeeded() {
+        inFlight--;
+        window = Math.min(maxConcurrency, window + 1 / window);
+        notifyAll();
+    }
+
+    /**
+     * Gives back a request that failed or won't be claimed
+     */
+    public synchronized void failed() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * @param attempt - number of retries of the request so far
+     * @return true when the request failed because JIRA is overloaded and may be retried
+     */
+    public boolean shouldRetry(final RuntimeException e, final int attempt) {
+        return e instanceof RestClientException && attempt < maxRetries
+                && ((RestClientException) e).getStatusCode().isPresent()
+                && OVERLOADED_STATUSES.contains(((RestClientException) e).getStatusCode().get());
+    }
+
+    /**
+     * Shrinks the window and waits before a refused request is sent again, the request keeps its place in the window
+     * @param attempt - number of retries of the request so far
+     */
+    public void throttled(final int attempt) {
+        long delay;
+        int newWindow;
+        synchronized (this) {
+            window = Math.max(1, window / 2);
+            newWindow = (int) window;
+            // full jitter, so searches refused at once don't come back at once
+            delay = (long) (random.nextDouble() * Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << Math.min(attempt, 16)));
+            spend();
+        }
+        logger.warn("JIRA is overloaded, lowering concurrency to {} and retrying in {} ms.", newWindow, delay);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Starts a new request budget, e.g. for the next run of a long-lived connector
+     */
+    public synchronized void reset() {
+        sent = 0;
+    }
+
+    private void spend() {
+        if (requestBudget > 0 && sent >= requestBudget) {
+            throw new JiraRequestBudgetExceededException(requestBudget);
+        }
+        sent++;
+    }
+}
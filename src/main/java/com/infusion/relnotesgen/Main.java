@@ -2,7 +2,7 @@ package com.infusion.relnotesgen;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
-import com.google.common.collect.FluentIterable;
+import com.google.common.base.Function;
 import com.google.common.collect.ImmutableSet;
 import com.infusion.relnotesgen.Configuration.Element;
 import com.infusion.relnotesgen.SCMFacade.Response;
@@ -19,7 +19,12 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import static org.apache.commons.lang3.StringUtils.*;
 
@@ -44,19 +49,94 @@ public class Main {
         final Configuration configuration = readConfiguration(programParameters);
         logger.info("Build configuration: {}", configuration);
 
-        JiraConnector jiraConnector = generateJiraConnector(configuration);
+        try (JiraConnector jiraConnector = generateJiraConnector(configuration)) {
+            if (programParameters.backfill) {
+                generateBackfillReleaseNotes(configuration, jiraConnector);
+            } else if (configuration.getGitRepositories().length > 0) {
+                generateAggregatedReleaseNotes(configuration, jiraConnector);
+            } else {
+                generateReleaseNotes(programParameters, configuration, jiraConnector);
+            }
+        }
+    }
 
-        // Get git log commits
-        final SCMFacade.Response gitInfo = generateGitInfo(programParameters, configuration);
+    private static void generateReleaseNotes(final ProgramParameters programParameters,
+            final Configuration configuration, final JiraConnector jiraConnector) throws IOException {
+        // Get git log commits, they are parsed as they are read so messages are not kept in memory
+        CommitMessageParser commitMessageParser = new CommitMessageParserImpl(configuration);
+        ParsedCommitInfo commitInfoProvider = new ParsedCommitInfo(commitMessageParser);
+        final SCMFacade.Response gitInfo = generateGitInfo(programParameters, configuration, commitInfoProvider);
 
         // Components
-        CommitInfoProvider commitInfoProvider = new CommitInfoProvider() {
+        VersionInfoProvider versionInfoProvider = new VersionInfoProvider() {
 
             @Override
-            public ImmutableSet<Commit> getCommits() {
-                return FluentIterable.from(gitInfo.commits).toSet();
+            public String getReleaseVersion() {
+                return defaultIfEmpty(configuration.getReleaseVersion(), gitInfo.version);
             }
         };
+
+        generateReleaseNotesFiles(configuration, jiraConnector, commitMessageParser, commitInfoProvider, gitInfo,
+                versionInfoProvider);
+    }
+
+    /**
+     * Generates release notes of every tag of the branch: history is read once, issues of all releases are fetched
+     * from JIRA at once, then the reports are rendered.
+     */
+    private static void generateBackfillReleaseNotes(final Configuration configuration,
+            final JiraConnector jiraConnector) throws IOException {
+        final CommitMessageParser commitMessageParser = new CommitMessageParserImpl(configuration);
+        final Map<String, ParsedCommitInfo> commitInfoByTag = new HashMap<>();
+        List<SCMFacade.Response> gitInfos;
+        SCMFacade gitFacade = null;
+        try {
+            gitFacade = new GitFacade(configuration, createAuthenticator(configuration));
+            gitInfos = gitFacade.readAllTagRanges(new Function<String, CommitHandler>() {
+
+                @Override
+                public CommitHandler apply(final String tag) {
+                    ParsedCommitInfo commitInfo = new ParsedCommitInfo(commitMessageParser);
+                    commitInfoByTag.put(tag, commitInfo);
+                    return commitInfo;
+                }
+            });
+        } finally {
+            if (gitFacade != null)
+                gitFacade.close();
+        }
+
+        ImmutableSet.Builder<String> issueIds = ImmutableSet.builder();
+        for (ParsedCommitInfo commitInfo : commitInfoByTag.values()) {
+            issueIds.addAll(commitInfo.getJiraIssueKeys());
+        }
+        PrefetchedJiraConnector prefetchedJiraConnector = new PrefetchedJiraConnector(jiraConnector);
+        prefetchedJiraConnector.prefetch(issueIds.build());
+
+        for (final SCMFacade.Response gitInfo : gitInfos) {
+            logger.info("Generating release notes of tag '{}'.", gitInfo.commitTag2.getTag());
+            VersionInfoProvider versionInfoProvider = new VersionInfoProvider() {
+
+                @Override
+                public String getReleaseVersion() {
+                    return gitInfo.version;
+                }
+            };
+            generateReleaseNotesFiles(configuration, prefetchedJiraConnector, commitMessageParser,
+                    commitInfoByTag.get(gitInfo.commitTag2.getTag()), gitInfo, versionInfoProvider);
+        }
+    }
+
+    /**
+     * Generates single release notes of all configured repositories, repositories are read concurrently and their
+     * issues are fetched from JIRA at once.
+     */
+    private static void generateAggregatedReleaseNotes(final Configuration configuration,
+            final JiraConnector jiraConnector) throws IOException {
+        CommitMessageParser commitMessageParser = new CommitMessageParserImpl(configuration);
+        AggregatedCommitInfo commitInfoProvider = new MultiRepositoryReader(configuration, commitMessageParser).read();
+        final SCMFacade.Response gitInfo = commitInfoProvider.getGitInfo();
+
         VersionInfoProvider versionInfoProvider = new VersionInfoProvider() {
 
             @Override
@@ -64,9 +144,17 @@ public class Main {
                 return defaultIfEmpty(configuration.getReleaseVersion(), gitInfo.version);
             }
         };
+
+        generateReleaseNotesFiles(configuration, jiraConnector, commitMessageParser, commitInfoProvider, gitInfo,
+                versionInfoProvider);
+    }
+
+    private static void generateReleaseNotesFiles(final Configuration configuration,
+            final JiraConnector jiraConnector, final CommitMessageParser commitMessageParser,
+            final CommitInfoProvider commitInfoProvider, final SCMFacade.Response gitInfo,
+            final VersionInfoProvider versionInfoProvider) throws IOException {
         IssueCategorizer issueCategorizer = new IssueCategorizerImpl(configuration);
-        JiraUtils jiraUtils = new JiraUtilsImpl(configuration);
-        CommitMessageParser commitMessageParser = new CommitMessageParserImpl(configuration);
+        JiraUtils jiraUtils = new JiraUtilsImpl(configuration, jiraConnector.getFieldResolver());
 
         // Generate report model factory
         ReleaseNotesModelFactory factory = new ReleaseNotesModelFactoryBuilder()
@@ -81,7 +169,6 @@ public class Main {
             ReleaseNotesModel externalReportModel = factory.getExternal();
             generateReleaseNotesFile(configuration, versionInfoProvider, externalReportModel, false);
         }
-
     }
 
     private static JiraConnector generateJiraConnector(final Configuration configuration) {
@@ -121,12 +208,10 @@ public class Main {
     }
 
     private static SCMFacade.Response generateGitInfo(ProgramParameters programParameters,
-            final Configuration configuration) {
+            final Configuration configuration, final CommitHandler handler) {
+
+        Authenticator authenticator = createAuthenticator(configuration);
 
-        Authenticator authenticator = configuration.getGitUrl().toLowerCase().startsWith("ssh://") ?
-                new PublicKeyAuthenticator() :
-                new UserCredentialsAuthenticator(configuration);
-                
         final SCMFacade.Response gitInfo;
         boolean devMode = configuration.getDevMode();
         if (devMode) {
@@ -136,11 +221,25 @@ public class Main {
                 
                 File objXmlFile = new File(filename);
                 if(objXmlFile.exists() && !objXmlFile.isDirectory()) { 
-                    // deserialize and return
+                    // deserialize, replay and return
                     gitInfo = (Response) serializer.deserialize(filename);
+                    for (Commit commit : gitInfo.commits) {
+                        handler.handle(commit);
+                    }
                 } else {
                     // retrieve, serialize and return
-                    gitInfo = generateNewGitInfo(programParameters, configuration, authenticator);
+                    final Set<Commit> commits = new HashSet<>();
+                    Response streamed = generateNewGitInfo(programParameters, configuration, authenticator,
+                            new CommitHandler() {
+
+                                @Override
+                                public void handle(final Commit commit) {
+                                    commits.add(commit);
+                                    handler.handle(commit);
+                                }
+                            });
+                    gitInfo = new Response(commits, streamed.version, streamed.commitTag1, streamed.commitTag2,
+                            streamed.gitBranch);
                     serializer.serialize(filename, gitInfo);
                 }
                 return gitInfo;
@@ -149,16 +248,22 @@ public class Main {
             }
         }
 
-        return generateNewGitInfo(programParameters, configuration, authenticator);
+        return generateNewGitInfo(programParameters, configuration, authenticator, handler);
+    }
+
+    static Authenticator createAuthenticator(final Configuration configuration) {
+        return configuration.getGitUrl().toLowerCase().startsWith("ssh://") ?
+                new PublicKeyAuthenticator() :
+                new UserCredentialsAuthenticator(configuration);
     }
 
     private static SCMFacade.Response generateNewGitInfo(ProgramParameters programParameters,
-            final Configuration configuration, Authenticator authenticator) {
+            final Configuration configuration, Authenticator authenticator, final CommitHandler handler) {
         final SCMFacade.Response gitInfo;
         SCMFacade gitFacade = null;
         try {
             gitFacade = new GitFacade(configuration, authenticator);
-            gitInfo = getGitInfo(programParameters, gitFacade);
+            gitInfo = getGitInfo(programParameters, gitFacade, handler);
         } finally {
             if (gitFacade != null)
                 gitFacade.close();
@@ -166,27 +271,30 @@ public class Main {
         return gitInfo;
     }
 
-    private static SCMFacade.Response getGitInfo(final ProgramParameters programParameters, final SCMFacade gitFacade) {
-        if (isNotEmpty(programParameters.tag1) && isNotEmpty(programParameters.commitId1)) {
+    private static SCMFacade.Response getGitInfo(final ProgramParameters programParameters, final SCMFacade gitFacade,
+            final CommitHandler handler) {
+        return readGitInfo(new SCMFacade.GitCommitTag(programParameters.commitId1, programParameters.tag1),
+                new SCMFacade.GitCommitTag(programParameters.commitId2, programParameters.tag2), gitFacade, handler);
+    }
+
+    static SCMFacade.Response readGitInfo(final SCMFacade.GitCommitTag commitTag1,
+            final SCMFacade.GitCommitTag commitTag2, final SCMFacade gitFacade, final CommitHandler handler) {
+        if (isNotEmpty(commitTag1.getTag()) && isNotEmpty(commitTag1.getCommit())) {
             throw new RuntimeException("Either tag1 or commitId1 can be provided. Invalid parameters.");
         }
-        if (isNotEmpty(programParameters.tag2) && isNotEmpty(programParameters.commitId2)) {
+        if (isNotEmpty(commitTag2.getTag()) && isNotEmpty(commitTag2.getCommit())) {
             throw new RuntimeException("Either tag2 or commitId2 can be provided. Invalid parameters.");
         }
 
-        if (isEmpty(programParameters.tag1) && isEmpty(programParameters.tag2) && isEmpty(programParameters.commitId1)
-                && isEmpty(programParameters.commitId2)) {
+        if (isEmpty(commitTag1.getTag()) && isEmpty(commitTag2.getTag()) && isEmpty(commitTag1.getCommit())
+                && isEmpty(commitTag2.getCommit())) {
             logger.info("No commit id or tag parameter provided, reading scm history by two latests tags.");
-            return gitFacade.readyTillLastTag();
+            return gitFacade.readyTillLastTag(handler);
         }
 
-        SCMFacade.GitCommitTag commitTag1 = new SCMFacade.GitCommitTag(programParameters.commitId1,
-                programParameters.tag1);
-        SCMFacade.GitCommitTag commitTag2 = new SCMFacade.GitCommitTag(programParameters.commitId2,
-                programParameters.tag2);
         logger.info("Reading scm history by tags '{}' and '{}'", commitTag1, commitTag2);
 
-        return gitFacade.readByCommit(commitTag1, commitTag2);
+        return gitFacade.readByCommit(commitTag1, commitTag2, handler);
     }
 
     private static File getReportDirectory(final Configuration configuration) throws IOException {
@@ -226,6 +334,9 @@ public class Main {
         @Parameter(names = {
                 "-pushReleaseNotes" }, description = "Perform push of release notes to remote repo") private boolean pushReleaseNotes = false;
 
+        @Parameter(names = {
+                "-backfill" }, description = "Generate release notes of every tag of the branch") private boolean backfill = false;
+
         @Element(Configuration.GIT_DIRECTORY)
         @Parameter(names = { "-gitDirectory" })
         private String gitDirectory;
@@ -234,6 +345,26 @@ public class Main {
         @Parameter(names = { "-gitBranch" })
         private String gitBranch;
 
+        @Element(Configuration.GIT_BARE)
+        @Parameter(names = { "-gitBare" })
+        private String gitBare;
+
+        @Element(Configuration.GIT_COMMIT_FILTER)
+        @Parameter(names = { "-gitCommitFilter" })
+        private String gitCommitFilter;
+
+        @Element(Configuration.GIT_COMMIT_CACHE)
+        @Parameter(names = { "-gitCommitCache" })
+        private String gitCommitCache;
+
+        @Element(Configuration.GIT_REPOSITORIES)
+        @Parameter(names = { "-gitRepositories" })
+        private String gitRepositories;
+
+        @Element(Configuration.GIT_REPOSITORIES_THREADS)
+        @Parameter(names = { "-gitRepositoriesThreads" })
+        private String gitRepositoriesThreads;
+
         @Element(Configuration.GIT_URL)
         @Parameter(names = { "-gitUrl" })
         private String gitUrl;
@@ -282,6 +413,34 @@ public class Main {
         @Parameter(names = { "-jiraIssuePattern" })
         private String jiraIssuePattern;
 
+        @Element(Configuration.JIRA_SEARCH_PAGESIZE)
+        @Parameter(names = { "-jiraSearchPageSize" })
+        private String jiraSearchPageSize;
+
+        @Element(Configuration.JIRA_SEARCH_PARALLELISM)
+        @Parameter(names = { "-jiraSearchParallelism" })
+        private String jiraSearchParallelism;
+
+        @Element(Configuration.JIRA_SEARCH_CHUNKSIZE)
+        @Parameter(names = { "-jiraSearchChunkSize" })
+        private String jiraSearchChunkSize;
+
+        @Element(Configuration.JIRA_SEARCH_FIELDS)
+        @Parameter(names = { "-jiraSearchFields" })
+        private String jiraSearchFields;
+
+        @Element(Configuration.JIRA_SEARCH_MAXRETRIES)
+        @Parameter(names = { "-jiraSearchMaxRetries" })
+        private String jiraSearchMaxRetries;
+
+        @Element(Configuration.JIRA_SEARCH_REQUESTBUDGET)
+        @Parameter(names = { "-jiraSearchRequestBudget" })
+        private String jiraSearchRequestBudget;
+
+        @Element(Configuration.JIRA_ISSUE_CACHE)
+        @Parameter(names = { "-jiraIssueCache" })
+        private String jiraIssueCache;
+
         @Element(Configuration.ISSUE_FILTERBY_COMPONENT)
         @Parameter(names = { "-issueFilterByComponent" })
         private String issueFilterByComponent;
@@ -18,12 +18,18 @@ public class MainInvoker {
     private static final String CUSTOM_APPENDER = "custom";
     private static final String STDOUT_APPENDER = "STDOUT";
 
+    private String configurationFilePath;
     private String commitId1;
     private String commitId2;
     private String tag1;
     private String tag2;
     private String gitDirectory;
     private String gitBranch;
+    private String gitBare;
+    private String gitCommitFilter;
+    private String gitCommitCache;
+    private String gitRepositories;
+    private String gitRepositoriesThreads;
     private String gitUrl;
     private String gitUsername;
     private String gitPassword;
@@ -31,10 +37,18 @@ public class MainInvoker {
     private String gitCommitterMail;
     private String gitCommitMessageValidationOmmiter;
     private boolean pushReleaseNotes = false;
+    private boolean backfill = false;
     private String jiraUrl;
     private String jiraUsername;
     private String jiraPassword;
     private String jiraIssuePattern;
+    private String jiraSearchPageSize;
+    private String jiraSearchParallelism;
+    private String jiraSearchChunkSize;
+    private String jiraSearchFields;
+    private String jiraSearchMaxRetries;
+    private String jiraSearchRequestBudget;
+    private String jiraIssueCache;
     private String issueFilterByComponent;
     private String issueFilterByType;
     private String issueFilterByLabel;
@@ -84,6 +98,11 @@ public class MainInvoker {
         return Configuration.LOGGER_NAME;
     }
 
+    public MainInvoker configurationFilePath(final String configurationFilePath) {
+        this.configurationFilePath = configurationFilePath;
+        return this;
+    }
+
     public MainInvoker commitStart(final String commitStart) {
         this.commitId1 = commitStart;
         return this;
@@ -114,6 +133,31 @@ public class MainInvoker {
         return this;
     }
 
+    public MainInvoker gitBare(final boolean gitBare) {
+        this.gitBare = String.valueOf(gitBare);
+        return this;
+    }
+
+    public MainInvoker gitCommitFilter(final String gitCommitFilter) {
+        this.gitCommitFilter = gitCommitFilter;
+        return this;
+    }
+
+    public MainInvoker gitCommitCache(final String gitCommitCache) {
+        this.gitCommitCache = gitCommitCache;
+        return this;
+    }
+
+    public MainInvoker gitRepositories(final String gitRepositories) {
+        this.gitRepositories = gitRepositories;
+        return this;
+    }
+
+    public MainInvoker gitRepositoriesThreads(final int gitRepositoriesThreads) {
+        this.gitRepositoriesThreads = String.valueOf(gitRepositoriesThreads);
+        return this;
+    }
+
     public MainInvoker gitUrl(final String gitUrl) {
         this.gitUrl = gitUrl;
         return this;
@@ -149,6 +193,11 @@ public class MainInvoker {
         return this;
     }
 
+    public MainInvoker backfill(final boolean backfill) {
+        this.backfill = backfill;
+        return this;
+    }
+
     public MainInvoker jiraUrl(final String jiraUrl) {
         this.jiraUrl = jiraUrl;
         return this;
@@ -169,6 +218,41 @@ public class MainInvoker {
         return this;
     }
 
+    public MainInvoker jiraSearchPageSize(final int jiraSearchPageSize) {
+        this.jiraSearchPageSize = String.valueOf(jiraSearchPageSize);
+        return this;
+    }
+
+    public MainInvoker jiraSearchParallelism(final int jiraSearchParallelism) {
+        this.jiraSearchParallelism = String.valueOf(jiraSearchParallelism);
+        return this;
+    }
+
+    public MainInvoker jiraSearchChunkSize(final int jiraSearchChunkSize) {
+        this.jiraSearchChunkSize = String.valueOf(jiraSearchChunkSize);
+        return this;
+    }
+
+    public MainInvoker jiraSearchFields(final String jiraSearchFields) {
+        this.jiraSearchFields = jiraSearchFields;
+        return this;
+    }
+
+    public MainInvoker jiraSearchMaxRetries(final int jiraSearchMaxRetries) {
+        this.jiraSearchMaxRetries = String.valueOf(jiraSearchMaxRetries);
+        return this;
+    }
+
+    public MainInvoker jiraSearchRequestBudget(final int jiraSearchRequestBudget) {
+        this.jiraSearchRequestBudget = String.valueOf(jiraSearchRequestBudget);
+        return this;
+    }
+
+    public MainInvoker jiraIssueCache(final String jiraIssueCache) {
+        this.jiraIssueCache = jiraIssueCache;
+        return this;
+    }
+
     public MainInvoker issueFilterByComponent(final String issueFilterByComponent) {
         this.issueFilterByComponent = issueFilterByComponent;
         return this;
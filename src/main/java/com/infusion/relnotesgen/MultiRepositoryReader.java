@@ -0,0 +1,95 @@
+package com.infusion.relnotesgen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads history of all {@link Configuration#getGitRepositories()} concurrently, each repository with its own
+ * {@link GitFacade}, on a pool of {@link Configuration#getGitRepositoriesThreads()} threads.
+ */
+public class MultiRepositoryReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(Configuration.LOGGER_NAME);
+
+    private final Configuration configuration;
+    private final CommitMessageParser commitMessageParser;
+
+    public MultiRepositoryReader(final Configuration configuration, final CommitMessageParser commitMessageParser) {
+        this.configuration = configuration;
+        this.commitMessageParser = commitMessageParser;
+    }
+
+    public AggregatedCommitInfo read() {
+        String[] repositories = configuration.getGitRepositories();
+        int threads = Math.max(1, Math.min(configuration.getGitRepositoriesThreads(), repositories.length));
+        logger.info("Reading {} repositories using {} threads.", repositories.length, threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<RepositoryInfo>> futures = new ArrayList<>();
+            for (String repository : repositories) {
+                futures.add(executor.submit(new RepositoryReading(repository)));
+            }
+
+            AggregatedCommitInfo commitInfo = new AggregatedCommitInfo();
+            for (int i = 0; i < repositories.length; i++) {
+                RepositoryInfo repositoryInfo = futures.get(i).get();
+                commitInfo.add(repositories[i], repositoryInfo.gitInfo, repositoryInfo.commitInfo);
+            }
+            return commitInfo;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Exception while reading git repository", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private class RepositoryReading implements Callable<RepositoryInfo> {
+
+        private final String repository;
+
+        RepositoryReading(final String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public RepositoryInfo call() {
+            Configuration repositoryConfiguration = configuration.forGitRepository(repository);
+            logger.info("Reading repository '{}' from {}", repository, repositoryConfiguration.getGitDirectory());
+
+            ParsedCommitInfo commitInfo = new ParsedCommitInfo(commitMessageParser);
+            SCMFacade gitFacade = null;
+            try {
+                gitFacade = new GitFacade(repositoryConfiguration, Main.createAuthenticator(repositoryConfiguration));
+                SCMFacade.Response gitInfo = Main.readGitInfo(configuration.getGitRepositoryLowerBound(repository),
+                        configuration.getGitRepositoryUpperBound(repository), gitFacade, commitInfo);
+                return new RepositoryInfo(gitInfo, commitInfo);
+            } finally {
+                if (gitFacade != null)
+                    gitFacade.close();
+            }
+        }
+    }
+
+    private static class RepositoryInfo {
+
+        private final SCMFacade.Response gitInfo;
+        private final ParsedCommitInfo commitInfo;
+
+        RepositoryInfo(final SCMFacade.Response gitInfo, final ParsedCommitInfo commitInfo) {
+            this.gitInfo = gitInfo;
+            this.commitInfo = commitInfo;
+        }
+    }
+}
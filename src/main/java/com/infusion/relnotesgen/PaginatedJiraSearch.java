@@ -0,0 +1,200 @@
+package com.infusion.relnotesgen;
+
+import com.atlassian.jira.rest.client.api.SearchRestClient;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
+import com.atlassian.util.concurrent.Promise;
+import com.google.common.collect.Iterables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads all pages of JQL searches.
+ * <p>
+ * First pages of all queries tell the total number of issues and the page size actually used by JIRA, the remaining
+ * pages are then requested without waiting for each other. Requests are sent asynchronously with as many of them
+ * pending at a time as the shared {@link JiraRequestLimiter} allows, pages refused by an overloaded JIRA are requested
+ * again. Pages are collected in order, so issues keep the order of the queries and of the search. A
+ * {@link PageListener} sees issues of every page as soon as it arrives.
+ */
+public class PaginatedJiraSearch {
+
+    private static final Logger logger = LoggerFactory.getLogger(Configuration.LOGGER_NAME);
+
+    private final SearchRestClient searchClient;
+    private final int pageSize;
+    private final JiraRequestLimiter limiter;
+
+    /**
+     * @param searchClient - client sending search requests
+     * @param pageSize     - requested number of issues per page, JIRA may use a lower one
+     * @param limiter      - limits page requests pending at a time
+     */
+    public PaginatedJiraSearch(final SearchRestClient searchClient, final int pageSize,
+            final JiraRequestLimiter limiter) {
+        this.searchClient = searchClient;
+        this.pageSize = Math.max(1, pageSize);
+        this.limiter = limiter;
+    }
+
+    /**
+     * @param jql    - query
+     * @param fields - fields of issues to return, null for JIRA's default
+     * @return issues of all pages
+     */
+    public List<Issue> search(final String jql, final Set<String> fields) {
+        return search(Collections.singletonList(jql), fields);
+    }
+
+    /**
+     * @param jqls   - queries, e.g. chunks of a query too long to be sent at once
+     * @param fields - fields of issues to return, null for JIRA's default
+     * @return issues of all pages of all queries
+     */
+    public List<Issue> search(final List<String> jqls, final Set<String> fields) {
+        return search(jqls, fields, null);
+    }
+
+    /**
+     * @param jqls     - queries, e.g. chunks of a query too long to be sent at once
+     * @param fields   - fields of issues to return, null for JIRA's default
+     * @param listener - notified of every page as it arrives, may be null
+     * @return issues of all pages of all queries
+     */
+    public List<Issue> search(final List<String> jqls, final Set<String> fields, final PageListener listener) {
+        List<PageRequest> firstPageRequests = new ArrayList<>();
+        for (String jql : jqls) {
+            firstPageRequests.add(new PageRequest(jql, pageSize, 0));
+        }
+        List<SearchResult> firstPages = claimAll(firstPageRequests, fields, listener);
+
+        List<PageRequest> pageRequests = new ArrayList<>();
+        List<Integer> pageRequestQueries = new ArrayList<>();
+        for (int i = 0; i < jqls.size(); i++) {
+            SearchResult firstPage = firstPages.get(i);
+            // JIRA caps maxResults on its side, pages follow the size it actually used
+            int step = firstPage.getMaxResults() > 0 ? Math.min(firstPage.getMaxResults(), pageSize) : pageSize;
+            for (int startAt = step; startAt < firstPage.getTotal(); startAt += step) {
+                pageRequests.add(new PageRequest(jqls.get(i), step, startAt));
+                pageRequestQueries.add(i);
+            }
+        }
+        if (!pageRequests.isEmpty()) {
+            logger.info("Fetching {} more pages of {} queries.", pageRequests.size(), jqls.size());
+        }
+        List<SearchResult> pages = claimAll(pageRequests, fields, listener);
+
+        List<Issue> issues = new ArrayList<>();
+        int page = 0;
+        for (int i = 0; i < jqls.size(); i++) {
+            int queryIssues = issues.size();
+            Iterables.addAll(issues, firstPages.get(i).getIssues());
+            for (; page < pages.size() && pageRequestQueries.get(page) == i; page++) {
+                Iterables.addAll(issues, pages.get(page).getIssues());
+            }
+            queryIssues = issues.size() - queryIssues;
+            if (queryIssues < firstPages.get(i).getTotal()) {
+                // issues changed between pages, report rather than guess
+                logger.warn("Query returned {} issues out of {}, issues were modified while being fetched.",
+                        queryIssues, firstPages.get(i).getTotal());
+            }
+        }
+        return issues;
+    }
+
+    private List<SearchResult> claimAll(final List<PageRequest> requests, final Set<String> fields,
+            final PageListener listener) {
+        List<SearchResult> results = new ArrayList<>(requests.size());
+        Deque<PendingPage> pending = new ArrayDeque<>();
+        int next = 0;
+        try {
+            while (next < requests.size() || !pending.isEmpty()) {
+                while (next < requests.size() && pending.size() < limiter.getMaxConcurrency()) {
+                    // never waits for the limiter while holding requests, so searches sharing it can't block each other
+                    if (pending.isEmpty()) {
+                        limiter.acquire();
+                    } else if (!limiter.tryAcquire()) {
+                        break;
+                    }
+                    PageRequest request = requests.get(next++);
+                    pending.add(new PendingPage(request, send(request, fields)));
+                }
+                SearchResult result = claim(pending.peek(), fields);
+                pending.poll();
+                if (listener != null) {
+                    listener.pageReceived(result.getIssues());
+                }
+                results.add(result);
+            }
+        } finally {
+            for (int i = 0; i < pending.size(); i++) {
+                limiter.failed();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Claims the page, requesting it again while JIRA refuses it as overloaded
+     */
+    private SearchResult claim(final PendingPage page, final Set<String> fields) {
+        for (int attempt = 0;; attempt++) {
+            try {
+                SearchResult result = page.promise.claim();
+                limiter.succeeded();
+                return result;
+            } catch (RuntimeException e) {
+                if (!limiter.shouldRetry(e, attempt)) {
+                    throw e;
+                }
+                logger.warn("Page at {} of query '{}' refused: {}", page.request.startAt, page.request.jql,
+                        e.getMessage());
+                limiter.throttled(attempt);
+                page.promise = send(page.request, fields);
+            }
+        }
+    }
+
+    private Promise<SearchResult> send(final PageRequest request, final Set<String> fields) {
+        return searchClient.searchJql(request.jql, request.maxResults, request.startAt, fields);
+    }
+
+    public interface PageListener {
+
+        /**
+         * Called on the searching thread, while later pages are being fetched
+         */
+        void pageReceived(Iterable<Issue> issues);
+    }
+
+    private static class PendingPage {
+
+        private final PageRequest request;
+        private Promise<SearchResult> promise;
+
+        PendingPage(final PageRequest request, final Promise<SearchResult> promise) {
+            this.request = request;
+            this.promise = promise;
+        }
+    }
+
+    private static class PageRequest {
+
+        private final String jql;
+        private final int maxResults;
+        private final int startAt;
+
+        PageRequest(final String jql, final int maxResults, final int startAt) {
+            this.jql = jql;
+            this.maxResults = maxResults;
+            this.startAt = startAt;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.infusion.relnotesgen;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Compact result of parsing a single commit. Message and author are kept only for commits with defect ids, as only
+ * those are shown in the report.
+ */
+public class ParsedCommit {
+
+    private static final String[] NONE = new String[0];
+
+    private final String id;
+    private final String[] jiraKeys;
+    private final String[] defectIds;
+    private final String pullRequestId;
+    private final String message;
+    private final String author;
+
+    public ParsedCommit(final String id, final ImmutableSet<String> jiraKeys, final ImmutableSet<String> defectIds,
+            final String pullRequestId, final String message, final String author) {
+        this.id = id;
+        this.jiraKeys = jiraKeys.isEmpty() ? NONE : jiraKeys.toArray(NONE);
+        this.defectIds = defectIds.isEmpty() ? NONE : defectIds.toArray(NONE);
+        this.pullRequestId = pullRequestId;
+        this.message = defectIds.isEmpty() ? null : message;
+        this.author = defectIds.isEmpty() ? null : author;
+    }
+
+    public static ParsedCommit parse(final Commit commit, final CommitMessageParser commitMessageParser) {
+        ParsedMessage message = commitMessageParser.parse(commit.getMessage());
+        return new ParsedCommit(commit.getId(), message.getJiraKeys(), message.getDefectIds(),
+                message.getPullRequestId(), commit.getMessage(), commit.getAuthor());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ImmutableSet<String> getJiraKeys() {
+        return ImmutableSet.copyOf(jiraKeys);
+    }
+
+    public ImmutableSet<String> getDefectIds() {
+        return ImmutableSet.copyOf(defectIds);
+    }
+
+    public String getPullRequestId() {
+        return pullRequestId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+}
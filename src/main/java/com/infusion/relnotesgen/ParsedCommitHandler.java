@@ -0,0 +1,20 @@
+package com.infusion.relnotesgen;
+
+import java.util.List;
+
+/**
+ * Handler which can be given commits parsed in an earlier run (see {@link CommitRangeCache}) instead of raw ones.
+ */
+public interface ParsedCommitHandler extends CommitHandler {
+
+    ParsedCommit parse(Commit commit);
+
+    void handle(ParsedCommit commit);
+
+    /**
+     * Parses and handles commits like {@link #parse(Commit)} and {@link #handle(ParsedCommit)} one by one would, many
+     * commits may be parsed in parallel
+     * @return parsed commits in order of given commits
+     */
+    List<ParsedCommit> handleAll(List<Commit> commits);
+}
@@ -0,0 +1,203 @@
+package com.infusion.relnotesgen;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses commits as they are read from scm and keeps only what the report needs: jira issue keys, pull request ids
+ * and the commits with defect ids. Messages of the other commits are dropped right after parsing.
+ * <p>
+ * Commits are parsed in batches, a batch of at least {@link #PARALLEL_THRESHOLD} commits is split into ForkJoin tasks
+ * each collecting its own part which are then merged in order of commits, so results don't depend on the split.
+ */
+public class ParsedCommitInfo implements ParsedCommitHandler, CommitInfoProvider {
+
+    static final int BATCH_SIZE = 8192;
+    static final int PARALLEL_THRESHOLD = 2048;
+    private static final int TASK_SIZE = 512;
+    private static final ForkJoinPool PARSE_POOL = new ForkJoinPool();
+
+    private final CommitMessageParser commitMessageParser;
+    private final List<Commit> pending = new ArrayList<>();
+    private final Set<String> jiraIssueKeys = new LinkedHashSet<>();
+    private final Map<String, Set<String>> pullRequestIds = new HashMap<>();
+    private final Set<ReportCommitModel> commitsWithDefectIds = new LinkedHashSet<>();
+    private int commitsCount;
+
+    public ParsedCommitInfo(final CommitMessageParser commitMessageParser) {
+        this.commitMessageParser = commitMessageParser;
+    }
+
+    @Override
+    public void handle(final Commit commit) {
+        pending.add(commit);
+        if (pending.size() >= BATCH_SIZE) {
+            parsePending();
+        }
+    }
+
+    @Override
+    public ParsedCommit parse(final Commit commit) {
+        return ParsedCommit.parse(commit, commitMessageParser);
+    }
+
+    @Override
+    public void handle(final ParsedCommit commit) {
+        parsePending();
+        add(commit);
+    }
+
+    private void add(final ParsedCommit commit) {
+        commitsCount++;
+        ImmutableSet<String> jiraKeys = commit.getJiraKeys();
+        ImmutableSet<String> defectIds = commit.getDefectIds();
+        String pullRequestId = commit.getPullRequestId();
+
+        jiraIssueKeys.addAll(jiraKeys);
+        if (pullRequestId != null) {
+            for (String jiraKey : jiraKeys) {
+                Set<String> ids = pullRequestIds.get(jiraKey);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    pullRequestIds.put(jiraKey, ids);
+                }
+                ids.add(pullRequestId);
+            }
+        }
+        if (!defectIds.isEmpty()) {
+            commitsWithDefectIds.add(new ReportCommitModel.ReportCommitModelBuilder()
+                    .id(commit.getId())
+                    .message(commit.getMessage())
+                    .author(commit.getAuthor())
+                    .defectIds(defectIds).jiraIds(jiraKeys)
+                    .build());
+        }
+    }
+
+    /**
+     * Appends what was collected from commits following the commits of this info
+     */
+    private void merge(final ParsedCommitInfo other) {
+        commitsCount += other.commitsCount;
+        jiraIssueKeys.addAll(other.jiraIssueKeys);
+        for (Map.Entry<String, Set<String>> entry : other.pullRequestIds.entrySet()) {
+            Set<String> ids = pullRequestIds.get(entry.getKey());
+            if (ids == null) {
+                pullRequestIds.put(entry.getKey(), entry.getValue());
+            } else {
+                ids.addAll(entry.getValue());
+            }
+        }
+        commitsWithDefectIds.addAll(other.commitsWithDefectIds);
+    }
+
+    private void parsePending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Commit[] commits = pending.toArray(new Commit[pending.size()]);
+        pending.clear();
+        parseAndAdd(commits, null);
+    }
+
+    @Override
+    public List<ParsedCommit> handleAll(final List<Commit> commits) {
+        parsePending();
+        ParsedCommit[] parsed = new ParsedCommit[commits.size()];
+        parseAndAdd(commits.toArray(new Commit[commits.size()]), parsed);
+        return Arrays.asList(parsed);
+    }
+
+    /**
+     * @param parsed - receives parsed commits at indexes of the commits, null when they are not needed
+     */
+    private void parseAndAdd(final Commit[] commits, final ParsedCommit[] parsed) {
+        if (commits.length < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < commits.length; i++) {
+                ParsedCommit commit = parse(commits[i]);
+                if (parsed != null) {
+                    parsed[i] = commit;
+                }
+                add(commit);
+            }
+        } else {
+            merge(PARSE_POOL.invoke(new ParseTask(commitMessageParser, commits, parsed, 0, commits.length)));
+        }
+    }
+
+    @Override
+    public int getCommitsCount() {
+        parsePending();
+        return commitsCount;
+    }
+
+    @Override
+    public ImmutableSet<String> getJiraIssueKeys() {
+        parsePending();
+        return ImmutableSet.copyOf(jiraIssueKeys);
+    }
+
+    @Override
+    public Map<String, Set<String>> getPullRequestIds() {
+        parsePending();
+        return pullRequestIds;
+    }
+
+    @Override
+    public ImmutableSet<ReportCommitModel> getCommitsWithDefectIds() {
+        parsePending();
+        return ImmutableSet.copyOf(commitsWithDefectIds);
+    }
+
+    /**
+     * Parses a range of commits into a new info
+     */
+    private static class ParseTask extends RecursiveTask<ParsedCommitInfo> {
+
+        private final CommitMessageParser commitMessageParser;
+        private final Commit[] commits;
+        private final ParsedCommit[] parsed;
+        private final int from;
+        private final int to;
+
+        ParseTask(final CommitMessageParser commitMessageParser, final Commit[] commits, final ParsedCommit[] parsed,
+                final int from, final int to) {
+            this.commitMessageParser = commitMessageParser;
+            this.commits = commits;
+            this.parsed = parsed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ParsedCommitInfo compute() {
+            if (to - from <= TASK_SIZE) {
+                ParsedCommitInfo info = new ParsedCommitInfo(commitMessageParser);
+                for (int i = from; i < to; i++) {
+                    ParsedCommit commit = info.parse(commits[i]);
+                    if (parsed != null) {
+                        parsed[i] = commit;
+                    }
+                    info.add(commit);
+                }
+                return info;
+            }
+            int middle = (from + to) >>> 1;
+            ParseTask right = new ParseTask(commitMessageParser, commits, parsed, middle, to);
+            right.fork();
+            ParsedCommitInfo left = new ParseTask(commitMessageParser, commits, parsed, from, middle).compute();
+            left.merge(right.join());
+            return left;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.infusion.relnotesgen;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Jira keys, defect ids and pull request id found in a commit message, see {@link CommitMessageParser#parse(String)}.
+ */
+public class ParsedMessage {
+
+    static final ParsedMessage EMPTY = new ParsedMessage(ImmutableSet.<String>of(), ImmutableSet.<String>of(), null);
+
+    private final ImmutableSet<String> jiraKeys;
+    private final ImmutableSet<String> defectIds;
+    private final String pullRequestId;
+
+    public ParsedMessage(final ImmutableSet<String> jiraKeys, final ImmutableSet<String> defectIds,
+            final String pullRequestId) {
+        this.jiraKeys = jiraKeys;
+        this.defectIds = defectIds;
+        this.pullRequestId = pullRequestId;
+    }
+
+    public ImmutableSet<String> getJiraKeys() {
+        return jiraKeys;
+    }
+
+    public ImmutableSet<String> getDefectIds() {
+        return defectIds;
+    }
+
+    public String getPullRequestId() {
+        return pullRequestId;
+    }
+}
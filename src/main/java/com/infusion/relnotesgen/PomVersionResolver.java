@@ -0,0 +1,88 @@
+package com.infusion.relnotesgen;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads project version from pom.xml stored in the tree of a commit.
+ * <p>
+ * pom.xml is read straight from the object database, so the working tree is never touched, and only the
+ * /project/version element is parsed.
+ */
+public class PomVersionResolver {
+
+    private static final String POM_XML = "pom.xml";
+    private static final String PROJECT_ELEMENT = "project";
+    private static final String VERSION_ELEMENT = "version";
+
+    private final Repository repository;
+    private final XMLInputFactory xmlInputFactory;
+
+    public PomVersionResolver(final Repository repository) {
+        this.repository = repository;
+        this.xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * @param commit - commit which tree will be searched for pom.xml
+     * @return content of /project/version element (empty when pom.xml doesn't define it) or null when there is no
+     * pom.xml in the root of the commit tree
+     */
+    public String getVersion(final RevCommit commit) throws IOException {
+        ObjectReader reader = repository.newObjectReader();
+        try {
+            TreeWalk treeWalk = TreeWalk.forPath(reader, POM_XML, commit.getTree());
+            if (treeWalk == null) {
+                return null;
+            }
+            try (InputStream pomXml = reader.open(treeWalk.getObjectId(0), Constants.OBJ_BLOB).openStream()) {
+                return readVersion(pomXml);
+            } finally {
+                treeWalk.release();
+            }
+        } finally {
+            reader.release();
+        }
+    }
+
+    private String readVersion(final InputStream pomXml) throws IOException {
+        try {
+            XMLStreamReader xmlReader = xmlInputFactory.createXMLStreamReader(pomXml);
+            try {
+                int depth = 0;
+                while (xmlReader.hasNext()) {
+                    int event = xmlReader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        String name = xmlReader.getLocalName();
+                        if (depth == 1 && !PROJECT_ELEMENT.equals(name)) {
+                            return "";
+                        }
+                        if (depth == 2 && VERSION_ELEMENT.equals(name)) {
+                            return xmlReader.getElementText();
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    }
+                }
+                return "";
+            } finally {
+                xmlReader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Couldn't parse " + POM_XML, e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.infusion.relnotesgen;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.infusion.relnotesgen.util.JiraFieldResolver;
+import com.infusion.relnotesgen.util.JiraIssueSearchType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Answers issue lookups of many reports with a single JIRA fetch.
+ * <p>
+ * Issues of all keys are fetched upfront with {@link #prefetch(ImmutableSet)}, every later
+ * {@link #getIssuesIncludeParents(ImmutableSet, Map)} picks its issues (and parents of its subtasks) from them.
+ * Fix version and known issue queries are sent once per distinct query. Queries of different kinds may be asked for
+ * concurrently, see {@link JiraQueryBatch}.
+ */
+public class PrefetchedJiraConnector implements JiraConnector {
+
+    private static final Logger logger = LoggerFactory.getLogger(Configuration.LOGGER_NAME);
+
+    private final JiraConnector jiraConnector;
+    private ImmutableMap<String, Issue> issues = ImmutableMap.of();
+    private final Map<JiraIssueSearchType, String> prefetchErrors = new HashMap<>();
+    private final Map<ImmutableSet<String>, CachedResult> issuesByFixVersions = new HashMap<>();
+    private final Map<String, CachedResult> knownIssuesByJql = new HashMap<>();
+
+    public PrefetchedJiraConnector(final JiraConnector jiraConnector) {
+        this.jiraConnector = jiraConnector;
+    }
+
+    /**
+     * @param issueIds - keys of issues of all reports
+     */
+    public void prefetch(final ImmutableSet<String> issueIds) {
+        logger.info("Prefetching {} issues.", issueIds.size());
+        prefetchErrors.clear();
+        issues = jiraConnector.getIssuesIncludeParents(issueIds, prefetchErrors);
+    }
+
+    @Override
+    public ImmutableMap<String, Issue> getIssuesIncludeParents(final ImmutableSet<String> issueIds,
+            final Map<JiraIssueSearchType, String> errors) {
+        Map<String, Issue> result = new HashMap<>();
+        for (String issueId : issueIds) {
+            Issue issue = issues.get(issueId);
+            if (issue == null) {
+                continue;
+            }
+            result.put(issueId, issue);
+            if (issue.getIssueType().isSubtask()) {
+                String parentKey = JiraConnectorImpl.getParentKey(issue);
+                Issue parent = issues.get(parentKey);
+                if (parent != null) {
+                    result.put(parentKey, parent);
+                }
+            }
+        }
+        putErrors(prefetchErrors, errors);
+        return ImmutableMap.copyOf(result);
+    }
+
+    @Override
+    public ImmutableMap<String, Issue> getIssuesByFixVersions(final ImmutableSet<String> fixVersions,
+            final Map<JiraIssueSearchType, String> errors) {
+        CachedResult result;
+        synchronized (issuesByFixVersions) {
+            result = issuesByFixVersions.get(fixVersions);
+            if (result == null) {
+                result = new CachedResult();
+                result.issues = jiraConnector.getIssuesByFixVersions(fixVersions, result.errors);
+                issuesByFixVersions.put(fixVersions, result);
+            }
+        }
+        putErrors(result.errors, errors);
+        return result.issues;
+    }
+
+    @Override
+    public ImmutableMap<String, Issue> getKnownIssuesByJql(final String jqlQuery,
+            final Map<JiraIssueSearchType, String> errors) {
+        CachedResult result;
+        synchronized (knownIssuesByJql) {
+            result = knownIssuesByJql.get(jqlQuery);
+            if (result == null) {
+                result = new CachedResult();
+                result.issues = jiraConnector.getKnownIssuesByJql(jqlQuery, result.errors);
+                knownIssuesByJql.put(jqlQuery, result);
+            }
+        }
+        putErrors(result.errors, errors);
+        return result.issues;
+    }
+
+    @Override
+    public JiraFieldResolver getFieldResolver() {
+        return jiraConnector.getFieldResolver();
+    }
+
+    @Override
+    public void close() throws IOException {
+        jiraConnector.close();
+    }
+
+    private static void putErrors(final Map<JiraIssueSearchType, String> source,
+            final Map<JiraIssueSearchType, String> target) {
+        if (target != null) {
+            target.putAll(source);
+        }
+    }
+
+    private static class CachedResult {
+
+        private ImmutableMap<String, Issue> issues;
+        private final Map<JiraIssueSearchType, String> errors = new HashMap<>();
+    }
+}
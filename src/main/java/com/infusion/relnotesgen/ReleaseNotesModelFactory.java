@@ -1,22 +1,20 @@
 package com.infusion.relnotesgen;
 
 import com.atlassian.jira.rest.client.api.domain.Issue;
-import com.atlassian.jira.rest.client.api.domain.IssueField;
-import com.atlassian.jira.rest.client.api.domain.Version;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.*;
 import com.infusion.relnotesgen.SCMFacade.Response;
-import com.infusion.relnotesgen.util.CollectionUtils;
+import com.infusion.relnotesgen.util.ClientFacingClassifier;
 import com.infusion.relnotesgen.util.IssueCategorizer;
 import com.infusion.relnotesgen.util.JiraIssueSearchType;
 import com.infusion.relnotesgen.util.JiraUtils;
 import com.infusion.relnotesgen.util.ModelViewLevel;
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import org.slf4j.Logger;
@@ -34,15 +32,31 @@ public class ReleaseNotesModelFactory {
     private final CommitMessageParser commitMessageParser;
     private final SCMFacade.Response gitInfo;
     private final Configuration configuration;
+    private final ValidationLookups validationLookups;
     public final ImmutableSet<String> labelsToSkip;
-    public Map<ModelViewLevel, Map<String, List<Issue>>> jiraIssuesByType;
+    public ImmutableSet<String> issueCategoryNames;
     public ImmutableMap<ModelViewLevel, ImmutableMap<String, ImmutableSet<ReportJiraIssueModel>>> issueModelsByType;
     public ImmutableSet<ReportCommitModel> commitsWithDefect;
     public ImmutableSet<ReportJiraIssueModel> knownIssues;
     public Map<JiraIssueSearchType, String> errors;
-    
-    private static final String REQUIREMENTS_VA_ID_CUSTOMFIELD_10803 = "customfield_10803";
-    private static final String DEFECT_ID_CUSTOMFIELD_11500 = "customfield_11500";
+
+
+    private static final String DEFECT_ID_FIELD = "Defect_Id";
+    private static final String REQUIREMENT_ID_FIELD = "Requirement VA ID";
+    private static final String FIXED_IN_VERSION_FIELD = "FixedInFlowWebVersion";
+    private static final String RELEASE_NOTES_FIELD = "Release Notes";
+    private static final String IMPACT_FIELD = "Impact";
+    private static final String DETAILS_OF_CHANGE_FIELD = "Details of change";
+    private static final ImmutableSet<String> CUSTOM_FIELDS = ImmutableSet.of(DEFECT_ID_FIELD, REQUIREMENT_ID_FIELD,
+            FIXED_IN_VERSION_FIELD, RELEASE_NOTES_FIELD, IMPACT_FIELD, DETAILS_OF_CHANGE_FIELD);
+
+    /**
+     * Names of fields read by the report, see {@link JiraFieldProjection}
+     */
+    public static final ImmutableSet<String> ISSUE_MODEL_FIELDS = ImmutableSet.<String>builder()
+            .add("summary", "issuetype", "status", "priority", "labels", "fixVersions", "parent")
+            .addAll(CUSTOM_FIELDS)
+            .build();
 
     public ReleaseNotesModelFactory(final CommitInfoProvider commitInfoProvider, final JiraConnector jiraConnector,
                                     final IssueCategorizer issueCategorizer, final VersionInfoProvider versionInfoProvider,
@@ -57,30 +71,34 @@ public class ReleaseNotesModelFactory {
         this.gitInfo = gitInfo;
         this.configuration = configuration;
         this.labelsToSkip = configuration.getLabelsToSkipSet();
+        this.validationLookups = new ValidationLookups(configuration);
     }
 
     public void prepare() {
-        Iterable<CommitWithParsedInfo> commitsWithParsedInfo = generateCommitsWithParsedInfo(commitInfoProvider.getCommits());
-        Map<String, Set<String>> prMap = generatePullRequestMap(commitsWithParsedInfo);
         Map<JiraIssueSearchType, String> errors = generateErrorMessageMap();
-		Map<String, Issue> combinedJiraIssuesNoSubtasks = generateCombinedJiraIssuesNoSubtasks(errors, commitsWithParsedInfo);
-
-        this.jiraIssuesByType = generateJiraIssuesByType(combinedJiraIssuesNoSubtasks);
-        this.issueModelsByType = generateIssueModelsByType(prMap, jiraIssuesByType);
-		this.knownIssues = generateKnownIssues(errors, combinedJiraIssuesNoSubtasks);
-        this.commitsWithDefect = generateCommitsWithDefect(commitsWithParsedInfo, combinedJiraIssuesNoSubtasks);
+        // the queries don't depend on each other, they're all sent now and joined when their results are needed
+        JiraQueryBatch jiraQueries = new JiraQueryBatch(jiraConnector, configuration.getFixVersionsSet(),
+                commitInfoProvider.getJiraIssueKeys(), configuration.getKnownIssues());
+		Map<String, Issue> combinedJiraIssuesNoSubtasks = generateCombinedJiraIssuesNoSubtasks(errors, jiraQueries);
+
+        // raw issues are only kept till they're converted to models
+        Map<ModelViewLevel, Map<String, List<Issue>>> jiraIssuesByType = generateJiraIssuesByType(combinedJiraIssuesNoSubtasks);
+        this.issueCategoryNames = getIssueTypes(jiraIssuesByType.get(ModelViewLevel.INTERNAL));
+        this.issueModelsByType = generateIssueModelsByType(commitInfoProvider.getPullRequestIds(), jiraIssuesByType);
+		this.knownIssues = generateKnownIssues(errors, combinedJiraIssuesNoSubtasks, jiraQueries);
+        this.commitsWithDefect = filterOutJiraIssues(commitInfoProvider.getCommitsWithDefectIds(), combinedJiraIssuesNoSubtasks);
         this.errors = generateErrorMessageMap();
     }
 
     public ReleaseNotesModel getInternal() {
         ReleaseNotesModel model= new ReleaseNotesModelBuilder()
-                .issueCategoryNames(getIssueTypes(jiraIssuesByType.get(ModelViewLevel.INTERNAL)))
+                .issueCategoryNames(issueCategoryNames)
                 .issuesByCategory(issueModelsByType.get(ModelViewLevel.EXTERNAL))
                 .internalIssuesByCategory(issueModelsByType.get(ModelViewLevel.INTERNAL))
                 .commitsWithDefectIds(commitsWithDefect)
                 .knownIssues(knownIssues)
                 .releaseVersion(versionInfoProvider.getReleaseVersion())
-                .commitTag1(gitInfo.commitTag1).commitTag2(gitInfo.commitTag2).commitsCount(gitInfo.commits.size())
+                .commitTag1(gitInfo.commitTag1).commitTag2(gitInfo.commitTag2).commitsCount(commitInfoProvider.getCommitsCount())
                 .gitBranch(gitInfo.gitBranch).configuration(configuration).errors(errors)
                 .build();
         return model;
@@ -88,32 +106,25 @@ public class ReleaseNotesModelFactory {
 
     public ReleaseNotesModel getExternal() {
         ReleaseNotesModel model = new ReleaseNotesModelBuilder()
-                .issueCategoryNames(getIssueTypes(jiraIssuesByType.get(ModelViewLevel.INTERNAL)))
+                .issueCategoryNames(issueCategoryNames)
                 .issuesByCategory(issueModelsByType.get(ModelViewLevel.EXTERNAL))
                 .internalIssuesByCategory(null)
                 .commitsWithDefectIds(commitsWithDefect)
                 .knownIssues(knownIssues)
                 .releaseVersion(versionInfoProvider.getReleaseVersion())
-                .commitTag1(gitInfo.commitTag1).commitTag2(gitInfo.commitTag2).commitsCount(gitInfo.commits.size())
+                .commitTag1(gitInfo.commitTag1).commitTag2(gitInfo.commitTag2).commitsCount(commitInfoProvider.getCommitsCount())
                 .gitBranch(gitInfo.gitBranch).configuration(configuration).errors(errors)
                 .build();
         return model;
     }
 
-    private Map<String, Issue> generateCombinedJiraIssuesNoSubtasks(Map<JiraIssueSearchType, String> errors, Iterable<CommitWithParsedInfo> commitsWithParsedInfo) {
-        ImmutableSet<String> issueIds = generateIssueIds(commitsWithParsedInfo);
-        ImmutableMap<String, Issue> combinedJiraIssues = generateCombinedJiraIssues(issueIds, errors);
+    private Map<String, Issue> generateCombinedJiraIssuesNoSubtasks(Map<JiraIssueSearchType, String> errors, JiraQueryBatch jiraQueries) {
+        ImmutableMap<String, Issue> combinedJiraIssues = combineJiraIssues(jiraQueries.getIssuesByFixVersions(errors),
+                jiraQueries.getIssuesIncludeParents(errors));
         Map<String, Issue> combinedJiraIssuesNoSubtasks = filterOutSubtasks(combinedJiraIssues);
         return combinedJiraIssuesNoSubtasks;
     }
 
-    private ImmutableSet<ReportCommitModel> generateCommitsWithDefect(Iterable<CommitWithParsedInfo> commitsWithParsedInfo,
-            Map<String, Issue> combinedJiraIssuesNoSubtasks) {
-        ImmutableSet<ReportCommitModel> commitsWithDefectIds = getCommitsWithDefectIds(commitsWithParsedInfo);
-		ImmutableSet<ReportCommitModel> commitsWithDefectIdsFiltered = filterOutJiraIssues(commitsWithDefectIds, combinedJiraIssuesNoSubtasks);
-		return commitsWithDefectIdsFiltered;
-    }
-
     private ImmutableMap<ModelViewLevel, ImmutableMap<String, ImmutableSet<ReportJiraIssueModel>>> generateIssueModelsByType(
             Map<String, Set<String>> prMap, Map<ModelViewLevel, Map<String, List<Issue>>> jiraIssuesByType) {
         ImmutableMap<ModelViewLevel, ImmutableMap<String, ImmutableSet<ReportJiraIssueModel>>> issueModelsByType = generateUnvalidatedIssueModelsByType(prMap, jiraIssuesByType);		
@@ -122,8 +133,8 @@ public class ReleaseNotesModelFactory {
     }
 
     private ImmutableSet<ReportJiraIssueModel> generateKnownIssues(Map<JiraIssueSearchType, String> errors,
-            Map<String, Issue> combinedJiraIssuesNoSubtasks) {
-        ImmutableSet<ReportJiraIssueModel> knownIssues = generateKnownIssues(errors, combinedJiraIssuesNoSubtasks, true);
+            Map<String, Issue> combinedJiraIssuesNoSubtasks, JiraQueryBatch jiraQueries) {
+        ImmutableSet<ReportJiraIssueModel> knownIssues = generateKnownIssues(errors, combinedJiraIssuesNoSubtasks, jiraQueries, true);
 		knownIssues = removeFixedIssuesFromKnownIssues(knownIssues, combinedJiraIssuesNoSubtasks);
 		return knownIssues;
     }
@@ -151,10 +162,11 @@ public class ReleaseNotesModelFactory {
     }
 
     private Map<ModelViewLevel, Map<String, List<Issue>>> generateJiraIssuesByType(Map<String, Issue> combinedJiraIssuesNoSubtasks) {
-        Map<ModelViewLevel, Map<String, Issue>> combinedJiraIssuesWithViewLevelsApplied = applyViewLevelsToCombinedJiraIssues(combinedJiraIssuesNoSubtasks);
+        ClientFacingClassifier clientFacingClassifier = new ClientFacingClassifier(configuration, jiraConnector.getFieldResolver());
+        Map<ModelViewLevel, List<Issue>> combinedJiraIssuesWithViewLevelsApplied = clientFacingClassifier.partition(combinedJiraIssuesNoSubtasks.values());
         Map<ModelViewLevel, Map<String, List<Issue>>> jiraIssuesByType = new HashMap<ModelViewLevel, Map<String, List<Issue>>>();
-        Map<String, List<Issue>> internalIssues = issueCategorizer.byType(combinedJiraIssuesWithViewLevelsApplied.get(ModelViewLevel.INTERNAL).values());
-        Map<String, List<Issue>> externalIssues = issueCategorizer.byType(combinedJiraIssuesWithViewLevelsApplied.get(ModelViewLevel.EXTERNAL).values());
+        Map<String, List<Issue>> internalIssues = issueCategorizer.byType(combinedJiraIssuesWithViewLevelsApplied.get(ModelViewLevel.INTERNAL));
+        Map<String, List<Issue>> externalIssues = issueCategorizer.byType(combinedJiraIssuesWithViewLevelsApplied.get(ModelViewLevel.EXTERNAL));
         jiraIssuesByType.put(ModelViewLevel.INTERNAL, internalIssues);
         jiraIssuesByType.put(ModelViewLevel.EXTERNAL, externalIssues);
         logger.debug("Jira Issues by type: internal size [{}] external size [{}]", combinedJiraIssuesWithViewLevelsApplied.get(ModelViewLevel.INTERNAL).size(), 
@@ -176,35 +188,9 @@ public class ReleaseNotesModelFactory {
 	    return ImmutableSet.copyOf(remainingModels);
 	}
 
-    private Map<ModelViewLevel, Map<String, Issue>> applyViewLevelsToCombinedJiraIssues(Map<String, Issue> combinedJiraIssuesNoSubtasks) {
-        Map<ModelViewLevel, Map<String, Issue>> managed = new HashMap<ModelViewLevel, Map<String, Issue>>();
-        Map<String, Issue> clientFacing = new HashMap<String, Issue>();
-        Map<String, Issue> internalOnly = new HashMap<String, Issue>();
-
-        for (Map.Entry<String, Issue> curr : combinedJiraIssuesNoSubtasks.entrySet()) {
-            Iterable<IssueField> fields = curr.getValue().getFields();
-            boolean indicateAsInternalOnly = false;
-            for (IssueField field : fields) {
-                if (field.getName() != null && configuration.getClientFacingFilterSet().contains(field.getName())) {
-                    if (field.getValue() != null) {
-                        indicateAsInternalOnly = true;
-                    }
-                }
-            }
-            if (!indicateAsInternalOnly) {
-                clientFacing.put(curr.getKey(), curr.getValue());
-            } else {
-                internalOnly.put(curr.getKey(), curr.getValue());                
-            }
-        }
-        logger.debug("Combined Jira Issues: internal size [{}] external size [{}]", combinedJiraIssuesNoSubtasks.size(), clientFacing.size());
-        managed.put(ModelViewLevel.EXTERNAL, clientFacing);
-        managed.put(ModelViewLevel.INTERNAL, internalOnly);//combinedJiraIssuesNoSubtasks);
-        return managed;
-    }
-
-    private ImmutableSet<ReportJiraIssueModel> generateKnownIssues(Map<JiraIssueSearchType, String> errors, Map<String, Issue> combinedJiraIssuesNoSubtasks, final boolean isClientFacing) {
-        ImmutableSet<ReportJiraIssueModel> knownIssues = generateKnownIssues(configuration.getKnownIssues(), errors);     
+    private ImmutableSet<ReportJiraIssueModel> generateKnownIssues(Map<JiraIssueSearchType, String> errors, Map<String, Issue> combinedJiraIssuesNoSubtasks,
+            JiraQueryBatch jiraQueries, final boolean isClientFacing) {
+        ImmutableSet<ReportJiraIssueModel> knownIssues = generateKnownIssues(jiraQueries, errors);     
 		ImmutableSet<ReportJiraIssueModel> knownIssuesWithIndicatedLablesSkipped = knownIssues;
 		if (isClientFacing) {
             knownIssuesWithIndicatedLablesSkipped = removeIssuesWithSkipLabels(knownIssues);
@@ -239,8 +225,8 @@ public class ReleaseNotesModelFactory {
 		return errors;
 	}
 
-	private ImmutableSet<ReportJiraIssueModel> generateKnownIssues(final String knownIssues, final Map<JiraIssueSearchType, String> errors) {
-		ImmutableMap<String, Issue> knownIssuesMap = jiraConnector.getKnownIssuesByJql(configuration.getKnownIssues(), errors);
+	private ImmutableSet<ReportJiraIssueModel> generateKnownIssues(final JiraQueryBatch jiraQueries, final Map<JiraIssueSearchType, String> errors) {
+		ImmutableMap<String, Issue> knownIssuesMap = jiraQueries.getKnownIssues(errors);
         ImmutableSet<ReportJiraIssueModel> knownIssuesModelSet = generateKnownIssuesModelSet(knownIssuesMap);
 //        mockithere
         return knownIssuesModelSet;
@@ -294,54 +280,6 @@ public class ReleaseNotesModelFactory {
         }));
 	}
 
-	private Iterable<CommitWithParsedInfo> generateCommitsWithParsedInfo(final ImmutableSet<Commit> commits) {
-		Iterable<CommitWithParsedInfo> commitsWithParsedInfo = FluentIterable.from(commits)
-                .transform(new Function<Commit, CommitWithParsedInfo>() {
-
-                    @Override
-                    public CommitWithParsedInfo apply(final Commit commit) {
-                        return new CommitWithParsedInfo(commit,
-                                commitMessageParser.getJiraKeys(commit.getMessage()),
-                                commitMessageParser.getDefectIds(commit.getMessage()),
-                                commitMessageParser.getPullRequestId(commit.getMessage()));
-                    }
-                });
-		return commitsWithParsedInfo;
-	}
-
-	private ImmutableSet<String> generateIssueIds(final Iterable<CommitWithParsedInfo> commitsWithParsedInfo) {
-		ImmutableSet<String> issueIds = FluentIterable.from(commitsWithParsedInfo)
-                .transformAndConcat(new Function<CommitWithParsedInfo, Iterable<String>>() {
-
-                    @Override
-                    public Iterable<String> apply(final CommitWithParsedInfo commitMessage) {
-                        return commitMessage.getJiraIssueKeys();
-                    }
-                }).toSet();
-		return issueIds;
-	}
-
-	private Map<String, Set<String>> generatePullRequestMap(final Iterable<CommitWithParsedInfo> commitsWithParsedInfo) {
-		Map<String,Set<String>> prMap = new HashMap<>();
-        // add items to the map
-        for(CommitWithParsedInfo c : commitsWithParsedInfo) {
-
-            if(c.getPullRequestId() != null) {
-                for (String jira : c.getJiraIssueKeys()) {
-
-                    if(!prMap.containsKey(jira)) {
-                        HashSet<String> set = new HashSet<String>();
-                        set.add(c.getPullRequestId());
-                        prMap.put(jira, set);
-                    } else {
-                        prMap.get(jira).add(c.getPullRequestId());
-                    }
-                }
-            }
-        }
-		return prMap;
-	}
-
 	private Map<String, Issue> filterOutSubtasks(final ImmutableMap<String, Issue> combinedJiraIssues) {
 		Map<String, Issue> combinedJiraIssuesNoSubtasks = Maps.filterValues(combinedJiraIssues, new Predicate<Issue>() {
 
@@ -356,33 +294,17 @@ public class ReleaseNotesModelFactory {
     public ImmutableMap<String, Issue> generateCombinedJiraIssues(final ImmutableSet<String> issueIds, final Map<JiraIssueSearchType, String> errors) {
         ImmutableMap<String, Issue> fixVersionIssues = jiraConnector.getIssuesByFixVersions(configuration.getFixVersionsSet(), errors);
         ImmutableMap<String, Issue> jiraIssues = jiraConnector.getIssuesIncludeParents(issueIds, errors);
+        return combineJiraIssues(fixVersionIssues, jiraIssues);
+	}
+
+    private ImmutableMap<String, Issue> combineJiraIssues(final ImmutableMap<String, Issue> fixVersionIssues,
+            final ImmutableMap<String, Issue> jiraIssues) {
         Map<String, Issue> temp = new HashMap<String, Issue>();
     	temp.putAll(fixVersionIssues);
     	temp.putAll(jiraIssues);
         return removeIssuesWithSkipLabels(ImmutableMap.copyOf(temp));
 	}
 
-	private ImmutableSet<ReportCommitModel> getCommitsWithDefectIds(final Iterable<CommitWithParsedInfo> commitMessages) {
-
-	    ImmutableSet<ReportCommitModel> returnData = FluentIterable.from(commitMessages)
-	    .filter(new Predicate<CommitWithParsedInfo>() {
-            @Override
-            public boolean apply(final CommitWithParsedInfo commitWithParsedInfo) {
-                ImmutableSet<String> defectIds = commitWithParsedInfo.getDefectIds();
-                return !defectIds.isEmpty();
-            }
-        })
-	    .transform(new Function<CommitWithParsedInfo, ReportCommitModel>() {
-            @Override
-            public ReportCommitModel apply(final CommitWithParsedInfo commitWithParsedInfo) {
-                return toCommitModel(commitWithParsedInfo);
-            }
-        })
-	    .toSet();
-	    logger.trace(returnData.toString());
-        return returnData;
-    }
-
     private ImmutableMap<String, ImmutableSet<ReportJiraIssueModel>> getIssuesByType(
     		final Map<String, List<Issue>> jiraIssuesByType, final Map<String,Set<String>> pullRquestsMap) {
 
@@ -448,23 +370,8 @@ public class ReleaseNotesModelFactory {
      * @param model
      * @return
      */
-	private boolean validateFixVersions(ReportJiraIssueModel model) {;
-		ImmutableSet<String> searchFixVersions = configuration.getFixVersionsSet();
-		if (searchFixVersions.isEmpty()) {
-		    return true;
-		}
-
-		ImmutableSet<String> modelFixVersions = CollectionUtils.stringToImmutableSet(",", model.getFixVersions());
-		if (searchFixVersions.isEmpty() && modelFixVersions.isEmpty()) {
-			return true;
-		}
-
-        boolean isFixVersionInConfig = false;
-		for (String modelFixVersionString : modelFixVersions) {
-			if (searchFixVersions.contains(modelFixVersionString)) {
-				isFixVersionInConfig = true;
-			}
-		}
+	private boolean validateFixVersions(ReportJiraIssueModel model) {
+        boolean isFixVersionInConfig = validationLookups.isFixVersionInConfig(model.getIssue().getFixVersionKeys());
 		if (isFixVersionInConfig) {
 	        logger.debug("{} is valid, at least one FixVersions for the Jira Issue is included in conguration jira.fixVersions", model.getIssue().getKey());		    
 		} else {
@@ -508,85 +415,64 @@ public class ReleaseNotesModelFactory {
     }
 
     private ReportJiraIssueModel toJiraIssueModel(final Issue issue, final Set<String> pullRequestIds) {
-        final String defectId = jiraUtils.getFieldValueByNameSafe(issue, "Defect_Id");
-        final String requirementId = jiraUtils.getFieldValueByNameSafe(issue, "Requirement VA ID");
+        final Map<String, String> fieldValues = jiraUtils.getFieldValuesByNameSafe(issue, CUSTOM_FIELDS);
+        final String defectId = fieldValues.get(DEFECT_ID_FIELD);
+        final String requirementId = fieldValues.get(REQUIREMENT_ID_FIELD);
         final String id = concatNotNullNotEmpty(" ", defectId, requirementId);
-        final String fixedInVersion = jiraUtils.getFieldValueByNameSafe(issue, "FixedInFlowWebVersion");
+        final String fixedInVersion = fieldValues.get(FIXED_IN_VERSION_FIELD);
         final String url = jiraUtils.getIssueUrl(issue);
-        final String releaseNotes = jiraUtils.getFieldValueByNameSafe(issue, "Release Notes");
-        final String impact = jiraUtils.getFieldValueByNameSafe(issue, "Impact");
-        final String detailsOfChange = jiraUtils.getFieldValueByNameSafe(issue, "Details of change");
-        final FluentIterable<String> fixVersions = FluentIterable.from(issue.getFixVersions()).transform(new Function<Version, String>() {
-
-            @Override
-            public String apply(final Version version) {
-                return version.getName();
-            }
-        });
-
-        final String status = issue.getStatus().getName();
-        final boolean isStatusOk = FluentIterable.from(Arrays.asList(configuration.getCompletedStatuses())).anyMatch(new Predicate<String>() {
-            @Override
-            public boolean apply(final String s) {
-                try {
-                    return s.trim().equalsIgnoreCase(status.trim());
-                } catch (NullPointerException e) {
-                    logger.warn("{}", e.getMessage(), e);
-                    return false;
-                }
-            }
-        });
+        final String releaseNotes = fieldValues.get(RELEASE_NOTES_FIELD);
+        final String impact = fieldValues.get(IMPACT_FIELD);
+        final String detailsOfChange = fieldValues.get(DETAILS_OF_CHANGE_FIELD);
+        final JiraIssueRecord record = JiraIssueRecord.of(issue);
+        final ImmutableList<String> fixVersions = record.getFixVersions();
 
-        return new ReportJiraIssueModel(issue, id, url, fixedInVersion, releaseNotes, fixVersions, impact, detailsOfChange, pullRequestIds, isStatusOk, status);
-    }
+        final String status = record.getStatus().getName();
+        final boolean isStatusOk = validationLookups.isCompleted(record.getStatusKey());
 
-    private ReportCommitModel toCommitModel(final CommitWithParsedInfo commitWithParsedInfo) {
-        return new ReportCommitModel.ReportCommitModelBuilder()
-                .id(commitWithParsedInfo.getCommit().getId()) 
-                .message(commitWithParsedInfo.getCommit().getMessage())
-                .author(commitWithParsedInfo.commit.getAuthor())
-                .defectIds(commitWithParsedInfo.getDefectIds()).jiraIds(commitWithParsedInfo.getJiraIssueKeys())
-                .build();
+        return new ReportJiraIssueModel(record, id, url, fixedInVersion, releaseNotes, fixVersions, impact, detailsOfChange, pullRequestIds, isStatusOk, status);
     }
 
-    private static class CommitWithParsedInfo {
-
-        private final ImmutableSet<String> jiraIssueKeys;
-        private final ImmutableSet<String> defectIds;
-        private final String pullRequestId;
-        private final Commit commit;
-
-        CommitWithParsedInfo(final Commit commit, final ImmutableSet<String> jiraIssueKeys,
-                             final ImmutableSet<String> defectIds, final String pullRequestId) {
-            this.commit = commit;
-            this.jiraIssueKeys = jiraIssueKeys;
-            this.defectIds = defectIds;
-            this.pullRequestId = pullRequestId;
-        }
+    /**
+     * Completed statuses and fix versions of the configuration issues are validated against, normalised the way
+     * {@link JiraIssueRecord} keeps them, each issue is then validated with hash lookups. Immutable, so issues may be
+     * validated on any thread.
+     */
+    private static final class ValidationLookups {
 
-        public ImmutableSet<String> getJiraIssueKeys() {
-            return jiraIssueKeys;
-        }
+        private final ImmutableSet<String> fixVersions;
+        private final ImmutableSet<String> completedStatuses;
 
-        public ImmutableSet<String> getDefectIds() {
-            return defectIds;
+        ValidationLookups(final Configuration configuration) {
+            this.fixVersions = configuration.getFixVersionsSet();
+            ImmutableSet.Builder<String> completedStatuses = ImmutableSet.builder();
+            for (String completedStatus : configuration.getCompletedStatuses()) {
+                completedStatuses.add(completedStatus.trim().toLowerCase(Locale.ROOT));
+            }
+            this.completedStatuses = completedStatuses.build();
         }
 
-        public Commit getCommit() {
-            return commit;
+        /**
+         * @param statusKey - see {@link JiraIssueRecord#getStatusKey()}
+         */
+        boolean isCompleted(final String statusKey) {
+            return statusKey != null && completedStatuses.contains(statusKey);
         }
 
-        public String getPullRequestId() {
-            return pullRequestId;
-        }
-        
-        public String toString() {
-            StringBuilder temp = new StringBuilder("CommitWithParsedInfo: \n");
-            temp.append("pullRequestId: ").append("[").append(pullRequestId).append("]\n");
-            temp.append("jiraIssueKeys: ").append(jiraIssueKeys).append("\n");
-            temp.append("defectIds: ").append(defectIds).append("\n");
-            temp.append(commit).append("\n");
-            return temp.toString();
+        /**
+         * @param fixVersionKeys - see {@link JiraIssueRecord#getFixVersionKeys()}
+         * @return true when no fix versions are configured or one of given fix versions is configured
+         */
+        boolean isFixVersionInConfig(final ImmutableList<String> fixVersionKeys) {
+            if (fixVersions.isEmpty()) {
+                return true;
+            }
+            for (int i = 0; i < fixVersionKeys.size(); i++) {
+                if (fixVersions.contains(fixVersionKeys.get(i))) {
+                    return true;
+                }
+            }
+            return false;
         }
     }
 
@@ -3,13 +3,14 @@ package com.infusion.relnotesgen;
 import com.atlassian.jira.rest.client.api.domain.Issue;
 import com.google.common.base.Function;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 
 import java.util.Arrays;
 import java.util.Set;
 
 public class ReportJiraIssueModel {
 
-    private final Issue issue;
+    private final JiraIssueRecord issue;
     private final String fixedInFlowWebVersion;
     private final String releaseNotes;
     private final String impact;
@@ -17,12 +18,18 @@ public class ReportJiraIssueModel {
     private final String[] pullRequestIds;
     private final String[] defectIds;
     private final String url;
-    private final String fixVersions;
+    private final ImmutableList<String> fixVersions;
     private final String status;
     private final boolean isStatusOk;
 
     public ReportJiraIssueModel(final Issue issue, final String defectId, final String url, final String fixedInFlowWebVersion, final String releaseNotes, 
     		final Iterable<String> jiraFixVersions, String impact, String detailsOfChange, Set<String> pullRequestIds, boolean isStatusOk, final String status) {
+        this(JiraIssueRecord.of(issue), defectId, url, fixedInFlowWebVersion, releaseNotes, jiraFixVersions, impact, detailsOfChange,
+                pullRequestIds, isStatusOk, status);
+    }
+
+    public ReportJiraIssueModel(final JiraIssueRecord issue, final String defectId, final String url, final String fixedInFlowWebVersion, final String releaseNotes, 
+    		final Iterable<String> jiraFixVersions, String impact, String detailsOfChange, Set<String> pullRequestIds, boolean isStatusOk, final String status) {
         this.issue = issue;
         this.fixedInFlowWebVersion = fixedInFlowWebVersion;
         this.url = url;
@@ -52,16 +59,10 @@ public class ReportJiraIssueModel {
             defectIds = new String[0];
         }
 
-        StringBuilder sb = new StringBuilder();
-        for (String v : jiraFixVersions) {
-            sb.append(v);
-            sb.append(", ");
-        }
-
-        fixVersions = sb.toString();
+        fixVersions = ImmutableList.copyOf(jiraFixVersions);
     }
 
-    public Issue getIssue() {
+    public JiraIssueRecord getIssue() {
         return issue;
     }
 
@@ -81,7 +82,19 @@ public class ReportJiraIssueModel {
         return releaseNotes;
     }
 
+    /**
+     * @return names of fix versions joined for display
+     */
     public String getFixVersions() {
+        StringBuilder sb = new StringBuilder();
+        for (String v : fixVersions) {
+            sb.append(v);
+            sb.append(", ");
+        }
+        return sb.toString();
+    }
+
+    public ImmutableList<String> getFixVersionNames() {
         return fixVersions;
     }
 
@@ -3,7 +3,12 @@
  */
 package com.infusion.relnotesgen;
 
+import com.google.common.base.Function;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -19,6 +24,31 @@ public interface SCMFacade {
 
     Response readByCommit(String commitId1, String commitId2);
 
+    /**
+     * Streams commits of the range to given handler instead of collecting them, commits of the returned response
+     * are empty.
+     */
+    Response readByCommit(final GitCommitTag commitId1, final GitCommitTag commitId2, final CommitHandler handler);
+
+    /**
+     * Streams commits since the last tag to given handler instead of collecting them, commits of the returned
+     * response are empty.
+     */
+    Response readyTillLastTag(final CommitHandler handler);
+
+    /**
+     * Reads the history of the branch once, splitting it into ranges between consecutive tags.
+     *
+     * @param handlers - gives handler receiving commits of the range ending at given tag (full tag name)
+     * @return responses of all ranges ordered from the oldest tag to the newest one, commits of responses are empty
+     */
+    List<Response> readAllTagRanges(final Function<String, ? extends CommitHandler> handlers);
+
+    /**
+     * @param filter - filter applied while walking the history, commits it rejects are not part of any response
+     */
+    void setCommitFilter(RevFilter filter);
+
     boolean pushReleaseNotes(final File releaseNotes, final String version);
 
     void close();
@@ -26,6 +56,7 @@ public interface SCMFacade {
     class Response {
 
         public final Set<Commit> commits;
+        public final int commitsCount;
         public final String version;
         public final GitCommitTag commitTag1;
         public final GitCommitTag commitTag2;
@@ -33,7 +64,18 @@ public interface SCMFacade {
 
         public Response(final Set<Commit> commits, final String version, final GitCommitTag commitTag1,
                 final GitCommitTag commitTag2, final String gitBranch) {
+            this(commits, commits.size(), version, commitTag1, commitTag2, gitBranch);
+        }
+
+        public Response(final int commitsCount, final String version, final GitCommitTag commitTag1,
+                final GitCommitTag commitTag2, final String gitBranch) {
+            this(Collections.<Commit>emptySet(), commitsCount, version, commitTag1, commitTag2, gitBranch);
+        }
+
+        private Response(final Set<Commit> commits, final int commitsCount, final String version,
+                final GitCommitTag commitTag1, final GitCommitTag commitTag2, final String gitBranch) {
             this.commits = commits;
+            this.commitsCount = commitsCount;
             this.version = version;
             this.commitTag1 = commitTag1;
             this.commitTag2 = commitTag2;
@@ -0,0 +1,69 @@
+package com.infusion.relnotesgen.util;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.IssueField;
+import com.google.common.collect.ImmutableSet;
+import com.infusion.relnotesgen.Configuration;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits issues into client facing ones and internal only ones: an issue is internal only when any of the fields
+ * configured in {@code report.clientFacingFilters} has a value.
+ * <p>
+ * Configured names are resolved to ids once, from the JIRA field metadata, then only those fields are read from each
+ * issue. Names the metadata doesn't know are matched by name on each issue.
+ */
+public class ClientFacingClassifier {
+
+    private final ImmutableSet<String> filterIds;
+    private final ImmutableSet<String> unresolvedNames;
+
+    public ClientFacingClassifier(final Configuration configuration, final JiraFieldResolver fieldResolver) {
+        ImmutableSet<String> filterNames = configuration.getClientFacingFilterSet();
+        // names of custom fields aren't unique, every field of a configured name is a filter
+        this.filterIds = ImmutableSet.copyOf(fieldResolver.getNamesById(filterNames).keySet());
+        this.unresolvedNames = fieldResolver.getUnresolved(filterNames);
+    }
+
+    /**
+     * @return issues by view level: {@link ModelViewLevel#EXTERNAL} for client facing ones,
+     * {@link ModelViewLevel#INTERNAL} for internal only ones
+     */
+    public Map<ModelViewLevel, List<Issue>> partition(final Iterable<Issue> issues) {
+        List<Issue> clientFacing = new ArrayList<Issue>();
+        List<Issue> internalOnly = new ArrayList<Issue>();
+        for (Issue issue : issues) {
+            if (isInternalOnly(issue)) {
+                internalOnly.add(issue);
+            } else {
+                clientFacing.add(issue);
+            }
+        }
+
+        Map<ModelViewLevel, List<Issue>> partition = new EnumMap<ModelViewLevel, List<Issue>>(ModelViewLevel.class);
+        partition.put(ModelViewLevel.EXTERNAL, clientFacing);
+        partition.put(ModelViewLevel.INTERNAL, internalOnly);
+        return partition;
+    }
+
+    boolean isInternalOnly(final Issue issue) {
+        for (String id : filterIds) {
+            IssueField field = issue.getField(id);
+            if (field != null && field.getValue() != null) {
+                return true;
+            }
+        }
+        if (!unresolvedNames.isEmpty()) {
+            for (IssueField field : issue.getFields()) {
+                if (field.getName() != null && unresolvedNames.contains(field.getName()) && field.getValue() != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
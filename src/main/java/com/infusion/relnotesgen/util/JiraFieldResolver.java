@@ -0,0 +1,73 @@
+package com.infusion.relnotesgen.util;
+
+import com.atlassian.jira.rest.client.api.domain.Field;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps display names of JIRA fields to their ids, built from the field metadata of the instance ({@code /field}).
+ * <p>
+ * Names of custom fields aren't unique, a name maps to the ids of all fields having it. Names the metadata doesn't
+ * know (or all names when JIRA couldn't list its fields, see {@link #BY_NAME}) are left unresolved and have to be
+ * matched by name on each issue.
+ */
+public class JiraFieldResolver {
+
+    /**
+     * Resolver knowing no fields
+     */
+    public static final JiraFieldResolver BY_NAME = new JiraFieldResolver(ImmutableSetMultimap.<String, String>of());
+
+    private final ImmutableSetMultimap<String, String> idsByName;
+
+    private JiraFieldResolver(final ImmutableSetMultimap<String, String> idsByName) {
+        this.idsByName = idsByName;
+    }
+
+    public static JiraFieldResolver of(final Iterable<Field> fields) {
+        ImmutableSetMultimap.Builder<String, String> idsByName = ImmutableSetMultimap.builder();
+        for (Field field : fields) {
+            if (field.getName() != null && field.getId() != null) {
+                idsByName.put(field.getName(), field.getId());
+            }
+        }
+        return new JiraFieldResolver(idsByName.build());
+    }
+
+    /**
+     * @return ids of all fields by their names
+     */
+    public ImmutableSetMultimap<String, String> getIdsByName() {
+        return idsByName;
+    }
+
+    /**
+     * @return names of given fields by ids of all fields having them, unresolved names are left out
+     */
+    public Map<String, String> getNamesById(final Set<String> names) {
+        Map<String, String> namesById = new HashMap<String, String>();
+        for (String name : names) {
+            for (String id : idsByName.get(name)) {
+                namesById.put(id, name);
+            }
+        }
+        return namesById;
+    }
+
+    /**
+     * @return given names no field id is known for
+     */
+    public ImmutableSet<String> getUnresolved(final Set<String> names) {
+        ImmutableSet.Builder<String> unresolved = ImmutableSet.builder();
+        for (String name : names) {
+            if (!idsByName.containsKey(name)) {
+                unresolved.add(name);
+            }
+        }
+        return unresolved.build();
+    }
+}
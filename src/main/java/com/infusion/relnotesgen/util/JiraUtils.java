@@ -2,8 +2,17 @@ package com.infusion.relnotesgen.util;
 
 import com.atlassian.jira.rest.client.api.domain.Issue;
 
+import java.util.Map;
+import java.util.Set;
+
 public interface JiraUtils {
     String getFieldValueByNameSafe(Issue issue, String fieldName);
 
+    /**
+     * Reads values of several fields in a single pass over fields of the issue
+     * @return values by field names, fields missing in the issue or with no value are left out
+     */
+    Map<String, String> getFieldValuesByNameSafe(Issue issue, Set<String> fieldNames);
+
     String getIssueUrl(Issue issue);
 }
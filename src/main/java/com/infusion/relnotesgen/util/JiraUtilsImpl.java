@@ -9,18 +9,49 @@ import org.codehaus.jettison.json.JSONException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 public class JiraUtilsImpl implements JiraUtils {
     private final Configuration configuration;
+    private final JiraFieldResolver fieldResolver;
 
-    public JiraUtilsImpl(final Configuration configuration) {
+    public JiraUtilsImpl(final Configuration configuration, final JiraFieldResolver fieldResolver) {
         this.configuration = configuration;
+        this.fieldResolver = fieldResolver;
     }
 
     @Override
     public String getFieldValueByNameSafe(Issue issue, String fieldName) {
-        IssueField field = issue.getFieldByName(fieldName);
+        return getFieldValueSafe(issue.getFieldByName(fieldName));
+    }
+
+    @Override
+    public Map<String, String> getFieldValuesByNameSafe(Issue issue, Set<String> fieldNames) {
+        // fields are matched by id, names unknown to the resolver by name of the field in the issue
+        Map<String, String> namesById = fieldResolver.getNamesById(fieldNames);
+        Set<String> unresolvedNames = fieldResolver.getUnresolved(fieldNames);
+        Set<String> foundNames = new HashSet<String>();
+        Map<String, String> values = new HashMap<String, String>();
+        for (IssueField field : issue.getFields()) {
+            String fieldName = namesById.get(field.getId());
+            if (fieldName == null && unresolvedNames.contains(field.getName())) {
+                fieldName = field.getName();
+            }
+            // like getFieldByName, only the first field of a name counts
+            if (fieldName != null && foundNames.add(fieldName)) {
+                String value = getFieldValueSafe(field);
+                if (value != null) {
+                    values.put(fieldName, value);
+                }
+            }
+        }
+        return values;
+    }
 
+    private String getFieldValueSafe(IssueField field) {
         if (field == null) {
             return null;
         }
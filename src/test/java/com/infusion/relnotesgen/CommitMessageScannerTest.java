@@ -0,0 +1,70 @@
+package com.infusion.relnotesgen;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class CommitMessageScannerTest {
+
+    private static final List<String> MESSAGES = ImmutableList.of(
+            "Merge pull request #710 in EN/harmony from bugfix/HA-9779-view to release/1.2\n CP-45 HA-1 : fix",
+            "Merge pull request #12 in EN/x\n defect_123 FSU-4 cr_cr77 CR_FOR1 r2req5 INC0000001 PBI00000001",
+            "Merge pull request #1 Merge pull request #2 HA-12HA-34 CP-5678x CR_CR_CR9 defect_defect_1",
+            "Merge pull request # HA- CP-1 defect_ FSU-");
+
+    @Test
+    public void findsSameMatchesAsRegex() {
+        //Given
+        Pattern[] patterns = {
+                Pattern.compile("((HA)|(CP))-\\d\\d+"),
+                Pattern.compile("((defect_)|(FSU-)|(CR_CR)|(CR_FOR)|(R2REQ)|(R3REQ)|(INC000000)|(PBI0000000))\\d+",
+                        Pattern.CASE_INSENSITIVE),
+                Pattern.compile("(CR_|CR_CR)\\d\\d"),
+                Pattern.compile("Merge pull request #\\d+")};
+
+        //When
+        CommitMessageScanner scanner = new CommitMessageScanner(patterns);
+
+        //Then
+        for (int p = 0; p < patterns.length; p++) {
+            assertTrue(patterns[p].pattern(), scanner.isCompiled(p));
+        }
+        for (String message : MESSAGES) {
+            List<ImmutableSet<String>> matches = scanner.scan(message);
+            for (int p = 0; p < patterns.length; p++) {
+                assertThat(message, matches.get(p), equalTo(findAll(patterns[p], message)));
+            }
+        }
+    }
+
+    @Test
+    public void fallsBackToRegexForOtherPatterns() {
+        //Given
+        Pattern pattern = Pattern.compile("[A-Z]+-\\d+|SYM\\d+");
+
+        //When
+        CommitMessageScanner scanner = new CommitMessageScanner(pattern);
+
+        //Then
+        assertFalse(scanner.isCompiled(0));
+        assertThat(scanner.scan(MESSAGES.get(0)).get(0), equalTo(findAll(pattern, MESSAGES.get(0))));
+    }
+
+    private static ImmutableSet<String> findAll(final Pattern pattern, final String text) {
+        ImmutableSet.Builder<String> matches = ImmutableSet.builder();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            matches.add(matcher.group());
+        }
+        return matches.build();
+    }
+}
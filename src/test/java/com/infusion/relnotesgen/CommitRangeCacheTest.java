@@ -0,0 +1,69 @@
+package com.infusion.relnotesgen;
+
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+public class CommitRangeCacheTest {
+
+    private File cacheDirectory;
+
+    @Before
+    public void createCacheDirectory() throws IOException {
+        cacheDirectory = Files.createTempDirectory("TestCommitCache").toFile();
+    }
+
+    @After
+    public void removeCacheDirectory() throws IOException {
+        FileUtils.deleteDirectory(cacheDirectory);
+    }
+
+    @Test
+    public void readsCachedRange() {
+        //Given
+        CommitRangeCache cache = new CommitRangeCache(cacheDirectory, "SYM-\\d+");
+        ParsedCommit commit = new ParsedCommit("id1", ImmutableSet.of("SYM-1"), ImmutableSet.of("defect_1"), "12",
+                "SYM-1 defect_1", "author");
+
+        //When
+        cache.put("id0", "id1", "", Collections.singletonList(commit));
+        List<ParsedCommit> commits = cache.get("id0", "id1", "");
+
+        //Then
+        assertThat(commits.size(), equalTo(1));
+        assertThat(commits.get(0).getId(), equalTo("id1"));
+        assertThat(commits.get(0).getJiraKeys(), equalTo(ImmutableSet.of("SYM-1")));
+        assertThat(commits.get(0).getDefectIds(), equalTo(ImmutableSet.of("defect_1")));
+        assertThat(commits.get(0).getPullRequestId(), equalTo("12"));
+    }
+
+    @Test
+    public void ignoresCachedFileOfOtherTypes() throws IOException {
+        //Given
+        CommitRangeCache cache = new CommitRangeCache(cacheDirectory, "SYM-\\d+");
+        cache.put("id0", "id1", "", Collections.<ParsedCommit>emptyList());
+        File[] files = cacheDirectory.listFiles();
+        assertThat(files, arrayWithSize(1));
+        Files.write(files[0].toPath(), "<java.io.File><path>/</path></java.io.File>".getBytes(Charsets.UTF_8));
+
+        //When
+        List<ParsedCommit> commits = cache.get("id0", "id1", "");
+
+        //Then
+        assertThat(commits, nullValue());
+    }
+}
@@ -1,11 +1,13 @@
 package com.infusion.relnotesgen;
 
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
 import java.util.Properties;
 
 import org.junit.Test;
@@ -80,6 +82,34 @@ public class ConfigurationTest {
         assertThat(configuration.getGitUrl(), equalTo(parameters.gitUrl));
     }
 
+    @Test
+    public void repositoryConfigurationOverridesGitProperties() {
+        //Given
+        Properties properties = new Properties() {
+            private static final long serialVersionUID = 3160270870516425853L;
+        {
+            put(Configuration.GIT_REPOSITORIES, "core, ui");
+            put(Configuration.GIT_BRANCH, "develop");
+            put(Configuration.GIT_URL, "url");
+            put(Configuration.JIRA_URL, "jiraUrl");
+            put("git.repositories.ui.url", "uiUrl");
+            put("git.repositories.ui.tag1", "1.0");
+        }};
+        Configuration configuration = new Configuration(properties);
+
+        //When
+        Configuration uiConfiguration = configuration.forGitRepository("ui");
+
+        //Then
+        assertThat(Arrays.asList(configuration.getGitRepositories()), containsInAnyOrder("core", "ui"));
+        assertThat(uiConfiguration.getGitUrl(), equalTo("uiUrl"));
+        assertThat(uiConfiguration.getGitBranch(), equalTo("develop"));
+        assertThat(uiConfiguration.getJiraUrl(), equalTo("jiraUrl"));
+        assertThat(uiConfiguration.getGitRepositories().length, equalTo(0));
+        assertThat(configuration.getGitRepositoryLowerBound("ui").getTag(), equalTo("1.0"));
+        assertThat(configuration.getGitRepositoryUpperBound("ui").getTag(), equalTo(null));
+    }
+
     private static class Parameters {
 
         @Element(Configuration.GIT_BRANCH)
@@ -0,0 +1,185 @@
+package com.infusion.relnotesgen;
+
+import com.google.common.base.Function;
+import com.infusion.relnotesgen.util.TestGitRepo;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.infusion.relnotesgen.util.TestUtil.getMessages;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class GitMessageReadingFromBareRepositoryTest {
+
+    private static TestGitRepo testGitRepo = new TestGitRepo();
+
+    private GitFacade gitMessageReader;
+    private File tempRepo;
+
+    @Before
+    public void createRepoDirectory() throws IOException {
+        tempRepo = Files.createTempDirectory("TestBareGitRepo").toFile();
+    }
+
+    @After
+    public void cleanRepo() throws IOException {
+        gitMessageReader.close();
+        FileUtils.deleteDirectory(tempRepo);
+    }
+
+    @AfterClass
+    public static void removeTestGitRepo() throws IOException {
+        testGitRepo.clean();
+    }
+
+    @Test
+    public void readsHistoryByTagsWithoutWorkingTree() throws IOException {
+        // Given
+        Configuration conf = testGitRepo.configuration()
+                .gitDirectory(tempRepo.getAbsolutePath())
+                .bare(true)
+                .build();
+        gitMessageReader = new GitFacade(conf, new UserCredentialsAuthenticator(conf));
+
+        // When
+        SCMFacade.Response gitInfo = gitMessageReader.readByTag("1.3", "1.4");
+        Set<String> messages = getMessages(gitInfo.commits);
+
+        // Then
+        assertThat(messages, hasSize(4));
+        assertThat(messages, hasItems("SYM-33 release of version 1.3\n", "SYM-41 prepare for version 1.4\n",
+                "SYM-42 prepare for version 1.4 part 2\n", "SYM-43 releas of version 1.4\n"));
+        assertThat(gitInfo.version, equalTo("1.4"));
+        assertThat(new File(tempRepo, "pom.xml").exists(), equalTo(false));
+    }
+
+    @Test
+    public void readsOnlyCommitsMatchingMessagePrefix() throws IOException {
+        // Given
+        Configuration conf = testGitRepo.configuration()
+                .gitDirectory(tempRepo.getAbsolutePath())
+                .bare(true)
+                .build();
+        gitMessageReader = new GitFacade(conf, new UserCredentialsAuthenticator(conf));
+        gitMessageReader.setCommitFilter(CommitFilters.parse("prefix:SYM-4"));
+
+        // When
+        SCMFacade.Response gitInfo = gitMessageReader.readByTag("1.3", "1.4");
+        Set<String> messages = getMessages(gitInfo.commits);
+
+        // Then
+        assertThat(messages, hasSize(3));
+        assertThat(messages, hasItems("SYM-41 prepare for version 1.4\n", "SYM-42 prepare for version 1.4 part 2\n",
+                "SYM-43 releas of version 1.4\n"));
+        assertThat(gitInfo.version, equalTo("1.4"));
+    }
+
+    @Test
+    public void readsExtendedRangeFromCommitCache() throws IOException {
+        // Given
+        File cacheDirectory = Files.createTempDirectory("TestCommitCache").toFile();
+        Configuration conf = testGitRepo.configuration()
+                .gitDirectory(tempRepo.getAbsolutePath())
+                .bare(true)
+                .commitCache(cacheDirectory.getAbsolutePath())
+                .jiraIssuePattern("SYM-\\d+")
+                .build();
+        gitMessageReader = new GitFacade(conf, new UserCredentialsAuthenticator(conf));
+        SCMFacade.GitCommitTag tag12 = new SCMFacade.GitCommitTag("7de1590b7d9375329a85d50f916ed91faeb0622d",
+                "refs/tags/1.2");
+        SCMFacade.GitCommitTag tag13 = new SCMFacade.GitCommitTag("459643f30fea11f0e0e2791c5b8b247c19df8eca",
+                "refs/tags/1.3");
+        SCMFacade.GitCommitTag tag14 = new SCMFacade.GitCommitTag("1a90539f98c6699cc100d811fb3edac73fba9748",
+                "refs/tags/1.4");
+        ParsedCommitInfo parsedCommits = new ParsedCommitInfo(new CommitMessageParserImpl(conf));
+
+        try {
+            // When
+            gitMessageReader.readByCommit(tag12, tag13, new ParsedCommitInfo(new CommitMessageParserImpl(conf)));
+            SCMFacade.Response gitInfo = gitMessageReader.readByCommit(tag12, tag14, parsedCommits);
+
+            // Then
+            assertThat(cacheDirectory.list(), arrayWithSize(2));
+            assertThat(gitInfo.commitsCount, equalTo(7));
+            assertThat(parsedCommits.getCommitsCount(), equalTo(7));
+            assertThat(parsedCommits.getJiraIssueKeys(),
+                    containsInAnyOrder("SYM-22", "SYM-31", "SYM-32", "SYM-33", "SYM-41", "SYM-42", "SYM-43"));
+            assertThat(gitInfo.version, equalTo("1.4"));
+        } finally {
+            FileUtils.deleteDirectory(cacheDirectory);
+        }
+    }
+
+    @Test
+    public void readsRangesOfAllTagsInOneWalk() throws IOException {
+        // Given
+        Configuration conf = testGitRepo.configuration()
+                .gitDirectory(tempRepo.getAbsolutePath())
+                .bare(true)
+                .build();
+        gitMessageReader = new GitFacade(conf, new UserCredentialsAuthenticator(conf));
+        final Map<String, Set<String>> messagesByTag = new HashMap<>();
+
+        // When
+        List<SCMFacade.Response> gitInfos = gitMessageReader.readAllTagRanges(new Function<String, CommitHandler>() {
+
+            @Override
+            public CommitHandler apply(final String tag) {
+                final Set<String> messages = new HashSet<>();
+                messagesByTag.put(tag, messages);
+                return new CommitHandler() {
+
+                    @Override
+                    public void handle(final Commit commit) {
+                        messages.add(commit.getMessage());
+                    }
+                };
+            }
+        });
+
+        // Then
+        assertThat(gitInfos, hasSize(4));
+        assertThat(gitInfos.get(0).commitTag2.getTag(), equalTo("refs/tags/1.1"));
+        assertThat(gitInfos.get(0).commitsCount, equalTo(8));
+        assertThat(gitInfos.get(1).commitTag1.getTag(), equalTo("refs/tags/1.1"));
+        assertThat(gitInfos.get(1).commitsCount, equalTo(4));
+        assertThat(gitInfos.get(3).commitTag1.getTag(), equalTo("refs/tags/1.3"));
+        assertThat(gitInfos.get(3).commitTag2.getTag(), equalTo("refs/tags/1.4"));
+        assertThat(gitInfos.get(3).version, equalTo("1.4"));
+        assertThat(messagesByTag.get("refs/tags/1.4"), containsInAnyOrder("SYM-33 release of version 1.3\n",
+                "SYM-41 prepare for version 1.4\n", "SYM-42 prepare for version 1.4 part 2\n",
+                "SYM-43 releas of version 1.4\n"));
+    }
+
+    @Test
+    public void readsLatestCommitsFromRemoteBranch() throws IOException {
+        // Given
+        Configuration conf = testGitRepo.configuration()
+                .gitDirectory(tempRepo.getAbsolutePath())
+                .bare(true)
+                .build();
+        gitMessageReader = new GitFacade(conf, new UserCredentialsAuthenticator(conf));
+
+        // When
+        SCMFacade.Response gitInfo = gitMessageReader.readByCommit("8d2c247b31b6c94d92fb71b426e4ec168659d671", null);
+        Set<String> messages = getMessages(gitInfo.commits);
+
+        // Then
+        assertThat(messages, hasSize(3));
+        assertThat(messages, hasItems("SYM-41 prepare for version 1.4\n", "SYM-42 prepare for version 1.4 part 2\n",
+                "SYM-43 releas of version 1.4\n"));
+        assertThat(gitInfo.commitTag2.getCommit(), equalTo("1a90539f98c6699cc100d811fb3edac73fba9748"));
+    }
+}
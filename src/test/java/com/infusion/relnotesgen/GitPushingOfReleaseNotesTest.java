@@ -80,6 +80,31 @@ public class GitPushingOfReleaseNotesTest {
         assertInNewRepo(content, tempReleaseNotes, successfull);
     }
 
+    @Test
+    public void pushesTwiceFromBareRepository() throws IOException {
+        // Given
+        Configuration conf = testGitRepo.configuration()
+                .gitDirectory(tempRepo.getAbsolutePath())
+                .bare(true)
+                .build();
+        gitMessageReader = new GitFacade(conf, new UserCredentialsAuthenticator(conf));
+        File tempReleaseNotes = File.createTempFile("ReleaseNotes", null);
+        Files.write(tempReleaseNotes.toPath(), "Bare release notes for version 1.2".getBytes(Charset.forName("UTF-8")));
+
+        // When
+        boolean successfull = gitMessageReader.pushReleaseNotes(tempReleaseNotes, "1.2");
+
+        // Then
+        assertInNewRepo("Bare release notes for version 1.2", tempReleaseNotes, successfull);
+
+        // second push starts from the first one
+        Files.write(tempReleaseNotes.toPath(), "Bare release notes for version 1.3".getBytes(Charset.forName("UTF-8")));
+
+        successfull = gitMessageReader.pushReleaseNotes(tempReleaseNotes, "1.3");
+
+        assertInNewRepo("Bare release notes for version 1.3", tempReleaseNotes, successfull);
+    }
+
     private void assertInNewRepo(final String content, final File tempReleaseNotes, final boolean successfull) throws IOException {
         assertThat(successfull, equalTo(true));
 
@@ -0,0 +1,42 @@
+package com.infusion.relnotesgen;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+public class JiraFieldProjectionTest {
+
+    @Test
+    public void resolvesNamesOfRequiredFieldsToIds() {
+        //Given
+        Properties properties = new Properties();
+        properties.put(Configuration.CLIENT_FACING_FILTERS, "Internal Only");
+        properties.put(Configuration.JIRA_SEARCH_FIELDS, "customfield_10100,Component/s");
+        JiraFieldProjection projection = new JiraFieldProjection(new Configuration(properties));
+        Map<String, String> idsByName = new HashMap<>();
+        idsByName.put("Summary", "summary");
+        idsByName.put("Parent", "parent");
+        idsByName.put("Release Notes", "customfield_10200");
+        idsByName.put("Internal Only", "customfield_10300");
+        idsByName.put("Component/s", "components");
+        idsByName.put("Description", "description");
+
+        //When
+        ImmutableSet<String> fields = projection.resolve(idsByName);
+
+        //Then
+        assertThat(fields, hasItems("summary", "parent", "status", "customfield_10200", "customfield_10300",
+                "customfield_10100", "components"));
+        assertThat(fields, not(hasItem("Release Notes")));
+        assertThat(fields, not(hasItem("description")));
+    }
+}
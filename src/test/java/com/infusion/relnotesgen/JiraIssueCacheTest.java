@@ -0,0 +1,47 @@
+package com.infusion.relnotesgen;
+
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+public class JiraIssueCacheTest {
+
+    private File cacheDirectory;
+
+    @Before
+    public void createCacheDirectory() throws IOException {
+        cacheDirectory = Files.createTempDirectory("TestIssueCache").toFile();
+    }
+
+    @After
+    public void removeCacheDirectory() throws IOException {
+        FileUtils.deleteDirectory(cacheDirectory);
+    }
+
+    @Test
+    public void ignoresCachedFileOfOtherTypes() throws IOException {
+        //Given
+        JiraIssueCache cache = new JiraIssueCache(cacheDirectory, "http://jira|fields");
+        File[] scopes = cacheDirectory.listFiles();
+        assertThat(scopes, arrayWithSize(1));
+        Files.write(new File(scopes[0], "SYM-1.xml").toPath(),
+                "<java.io.File><path>/</path></java.io.File>".getBytes(Charsets.UTF_8));
+
+        //When
+        boolean empty = cache.get(ImmutableList.of("SYM-1")).isEmpty();
+
+        //Then
+        assertTrue(empty);
+    }
+}
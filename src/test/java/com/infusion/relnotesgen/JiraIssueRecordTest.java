@@ -0,0 +1,39 @@
+package com.infusion.relnotesgen;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.Status;
+import com.atlassian.jira.rest.client.api.domain.Version;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class JiraIssueRecordTest {
+
+    @Test
+    public void normalisesStatusAndFixVersionsOnce() {
+        //Given
+        Status status = mock(Status.class);
+        when(status.getName()).thenReturn(" Ready For QA ");
+        Version version = mock(Version.class);
+        when(version.getName()).thenReturn("R3.1 ");
+        Issue issue = mock(Issue.class);
+        when(issue.getKey()).thenReturn("SYM-1");
+        when(issue.getStatus()).thenReturn(status);
+        when(issue.getFixVersions()).thenReturn(Arrays.asList(version));
+
+        //When
+        JiraIssueRecord record = JiraIssueRecord.of(issue);
+
+        //Then
+        assertThat(record.getStatus().getName(), equalTo(" Ready For QA "));
+        assertThat(record.getStatusKey(), equalTo("ready for qa"));
+        assertThat(record.getFixVersions(), contains("R3.1 "));
+        assertThat(record.getFixVersionKeys(), contains("R3.1"));
+    }
+}
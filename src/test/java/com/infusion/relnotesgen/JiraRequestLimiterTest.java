@@ -0,0 +1,52 @@
+package com.infusion.relnotesgen;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class JiraRequestLimiterTest {
+
+    @Test
+    public void halvesWindowWhenThrottledAndGrowsItBack() {
+        //Given
+        JiraRequestLimiter limiter = new JiraRequestLimiter(4, 5, 0);
+        acquireAll(limiter);
+
+        //When
+        limiter.throttled(0);
+        limiter.failed();
+        limiter.failed();
+        limiter.failed();
+        limiter.failed();
+
+        //Then
+        assertThat(acquireAll(limiter), equalTo(2));
+        limiter.succeeded();
+        limiter.succeeded();
+        limiter.acquire();
+        limiter.succeeded();
+        assertThat(acquireAll(limiter), equalTo(3));
+    }
+
+    @Test(expected = JiraRequestBudgetExceededException.class)
+    public void failsWhenRequestBudgetIsExhausted() {
+        //Given
+        JiraRequestLimiter limiter = new JiraRequestLimiter(1, 5, 2);
+        limiter.acquire();
+        limiter.succeeded();
+        limiter.acquire();
+        limiter.succeeded();
+
+        //When
+        limiter.acquire();
+    }
+
+    private static int acquireAll(final JiraRequestLimiter limiter) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+}
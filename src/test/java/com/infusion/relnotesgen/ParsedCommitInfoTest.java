@@ -0,0 +1,69 @@
+package com.infusion.relnotesgen;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+public class ParsedCommitInfoTest {
+
+    @Test
+    public void parsesLargeRangesInParallelWithSameResults() {
+        //Given
+        Properties properties = new Properties();
+        properties.put(Configuration.JIRA_ISSUEPATTERN, "SYM-\\d+");
+        CommitMessageParser commitMessageParser = new CommitMessageParserImpl(new Configuration(properties));
+        ParsedCommitInfo parallel = new ParsedCommitInfo(commitMessageParser);
+        ParsedCommitInfo sequential = new ParsedCommitInfo(commitMessageParser);
+
+        //When
+        for (int i = 0; i < ParsedCommitInfo.BATCH_SIZE + ParsedCommitInfo.PARALLEL_THRESHOLD; i++) {
+            Commit commit = new Commit("Merge pull request #" + i % 97 + " SYM-" + i % 1000 + " defect_" + i % 13,
+                    "id" + i, "author");
+            parallel.handle(commit);
+            sequential.handle(sequential.parse(commit));
+        }
+
+        //Then
+        assertThat(parallel.getCommitsCount(), equalTo(sequential.getCommitsCount()));
+        assertThat(parallel.getJiraIssueKeys().asList(), equalTo(sequential.getJiraIssueKeys().asList()));
+        assertThat(parallel.getPullRequestIds(), equalTo(sequential.getPullRequestIds()));
+        assertThat(ids(parallel.getCommitsWithDefectIds()), equalTo(ids(sequential.getCommitsWithDefectIds())));
+    }
+
+    @Test
+    public void returnsCommitsParsedInParallelInOrder() {
+        //Given
+        Properties properties = new Properties();
+        properties.put(Configuration.JIRA_ISSUEPATTERN, "SYM-\\d+");
+        ParsedCommitInfo commitInfo = new ParsedCommitInfo(new CommitMessageParserImpl(new Configuration(properties)));
+        List<Commit> commits = new ArrayList<>();
+        for (int i = 0; i < ParsedCommitInfo.PARALLEL_THRESHOLD * 2; i++) {
+            commits.add(new Commit("Merge pull request #" + i + " SYM-" + i, "id" + i, "author"));
+        }
+
+        //When
+        List<ParsedCommit> parsed = commitInfo.handleAll(commits);
+
+        //Then
+        assertThat(parsed.size(), equalTo(commits.size()));
+        for (int i = 0; i < commits.size(); i++) {
+            assertThat(parsed.get(i).getId(), equalTo("id" + i));
+            assertThat(parsed.get(i).getPullRequestId(), equalTo(String.valueOf(i)));
+        }
+        assertThat(commitInfo.getCommitsCount(), equalTo(commits.size()));
+        assertThat(commitInfo.getJiraIssueKeys().asList().get(1), equalTo("SYM-1"));
+    }
+
+    private static List<String> ids(final Iterable<ReportCommitModel> commits) {
+        List<String> ids = new ArrayList<>();
+        for (ReportCommitModel commit : commits) {
+            ids.add(commit.getId());
+        }
+        return ids;
+    }
+}
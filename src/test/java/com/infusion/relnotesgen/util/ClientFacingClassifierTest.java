@@ -0,0 +1,71 @@
+package com.infusion.relnotesgen.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.atlassian.jira.rest.client.api.domain.Field;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.IssueField;
+import com.infusion.relnotesgen.Configuration;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+public class ClientFacingClassifierTest {
+
+    private final Issue withoutFilterField = issue(new IssueField("summary", "Summary", null, "public"));
+    private final Issue withFilterField = issue(new IssueField("summary", "Summary", null, "internal"),
+            new IssueField("customfield_1", "Internal Only", null, "yes"));
+
+    @Test
+    public void classifiesIssueWithFilterFieldMissingInFirstIssueAsInternal() {
+        //Given
+        Field field = mock(Field.class);
+        when(field.getId()).thenReturn("customfield_1");
+        when(field.getName()).thenReturn("Internal Only");
+        ClientFacingClassifier classifier = new ClientFacingClassifier(configuration(),
+                JiraFieldResolver.of(Arrays.asList(field)));
+
+        //When
+        Map<ModelViewLevel, List<Issue>> partition = classifier.partition(Arrays.asList(withoutFilterField,
+                withFilterField));
+
+        //Then
+        assertThat(partition.get(ModelViewLevel.EXTERNAL), contains(withoutFilterField));
+        assertThat(partition.get(ModelViewLevel.INTERNAL), contains(withFilterField));
+    }
+
+    @Test
+    public void matchesFilterFieldsByNameWithoutFieldMetadata() {
+        //Given
+        ClientFacingClassifier classifier = new ClientFacingClassifier(configuration(), JiraFieldResolver.BY_NAME);
+
+        //When
+        Map<ModelViewLevel, List<Issue>> partition = classifier.partition(Arrays.asList(withoutFilterField,
+                withFilterField));
+
+        //Then
+        assertThat(partition.get(ModelViewLevel.EXTERNAL), contains(withoutFilterField));
+        assertThat(partition.get(ModelViewLevel.INTERNAL), contains(withFilterField));
+    }
+
+    private static Configuration configuration() {
+        Properties properties = new Properties();
+        properties.put("report.clientFacingFilters", "Internal Only");
+        return new Configuration(properties);
+    }
+
+    private static Issue issue(final IssueField... fields) {
+        Issue issue = mock(Issue.class);
+        when(issue.getFields()).thenReturn(Arrays.asList(fields));
+        for (IssueField field : fields) {
+            when(issue.getField(field.getId())).thenReturn(field);
+        }
+        return issue;
+    }
+}
@@ -0,0 +1,60 @@
+package com.infusion.relnotesgen.util;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.atlassian.jira.rest.client.api.domain.Field;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.IssueField;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.infusion.relnotesgen.Configuration;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+public class JiraUtilsImplTest {
+
+    private static final Set<String> FIELD_NAMES = ImmutableSet.of("Release Notes", "Impact", "Details of change");
+
+    @Test
+    public void readsFieldsEachIssueHasByIdOrByName() {
+        //Given
+        JiraFieldResolver resolver = JiraFieldResolver.of(Arrays.asList(
+                field("customfield_1", "Release Notes"),
+                field("customfield_2", "Release Notes"),
+                field("customfield_3", "Impact")));
+        JiraUtilsImpl jiraUtils = new JiraUtilsImpl(new Configuration(new Properties()), resolver);
+        Issue first = issue(new IssueField("customfield_3", "Impact", null, "low"));
+        Issue second = issue(new IssueField("customfield_2", "Release Notes", null, "notes"),
+                new IssueField("customfield_3", "Impact", null, null),
+                new IssueField("customfield_9", "Details of change", null, "details"));
+
+        //When
+        Map<String, String> firstValues = jiraUtils.getFieldValuesByNameSafe(first, FIELD_NAMES);
+        Map<String, String> secondValues = jiraUtils.getFieldValuesByNameSafe(second, FIELD_NAMES);
+
+        //Then
+        assertThat(firstValues, equalTo((Map<String, String>) ImmutableMap.of("Impact", "low")));
+        assertThat(secondValues, equalTo((Map<String, String>) ImmutableMap.of("Release Notes", "notes",
+                "Details of change", "details")));
+    }
+
+    private static Field field(final String id, final String name) {
+        Field field = mock(Field.class);
+        when(field.getId()).thenReturn(id);
+        when(field.getName()).thenReturn(name);
+        return field;
+    }
+
+    private static Issue issue(final IssueField... fields) {
+        Issue issue = mock(Issue.class);
+        when(issue.getFields()).thenReturn(Arrays.asList(fields));
+        return issue;
+    }
+}
@@ -10,6 +10,9 @@ public class TestConfigurationBuilder {
     private String gitDirectory;
     private String branch = "master";
     private String url;
+    private boolean bare = false;
+    private String commitCache;
+    private String jiraIssuePattern;
 
     public TestConfigurationBuilder gitDirectory(final String gitDirectory) {
         this.gitDirectory = gitDirectory;
@@ -26,6 +29,21 @@ public class TestConfigurationBuilder {
         return this;
     }
 
+    public TestConfigurationBuilder bare(final boolean bare) {
+        this.bare = bare;
+        return this;
+    }
+
+    public TestConfigurationBuilder commitCache(final String commitCache) {
+        this.commitCache = commitCache;
+        return this;
+    }
+
+    public TestConfigurationBuilder jiraIssuePattern(final String jiraIssuePattern) {
+        this.jiraIssuePattern = jiraIssuePattern;
+        return this;
+    }
+
     public Configuration build() {
         Properties properties = new Properties();
         properties.put("git.directory", gitDirectory);
@@ -36,6 +54,13 @@ public class TestConfigurationBuilder {
         properties.put("git.committer.name", "username");
         properties.put("git.committer.mail", "mail@mail.com");
         properties.put("git.commit.limit","5");
+        properties.put("git.bare", String.valueOf(bare));
+        if (commitCache != null) {
+            properties.put("git.commit.cache", commitCache);
+        }
+        if (jiraIssuePattern != null) {
+            properties.put("jira.issuepattern", jiraIssuePattern);
+        }
         return new Configuration(properties);
     }
 }